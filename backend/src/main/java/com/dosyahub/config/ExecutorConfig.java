@@ -0,0 +1,102 @@
+package com.dosyahub.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Uygulama içi arka plan işleri için sınırlı iş parçacığı havuzları
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Toplu yüklemede dosyaların depolamaya eşzamanlı yazıldığı havuz.
+     * Kuyruk dolduğunda iş çağıran iş parçacığında çalışır, böylece depolamaya giden eşzamanlı yazma sayısı sınırlı kalır.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor uploadExecutor(@Value("${storage.upload.batch-concurrency:4}") int concurrency,
+                                                 @Value("${storage.upload.batch-queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * ZIP indirmelerinde sıradaki dosyaların önceden açıldığı havuz.
+     * Kuyruk dolduğunda dosya yazan iş parçacığında açılır, indirme yavaşlar ama durmaz.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor readAheadExecutor(@Value("${storage.download.read-ahead-threads:8}") int threads,
+                                                    @Value("${storage.download.read-ahead-queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("read-ahead-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Yükleme sonrası türetme işlerinin (küçük resim, önizleme) çalıştığı havuz.
+     * Kuyruk dolduğunda iş reddedilir; türetilen içerik ilk istendiğinde tekrar kuyruğa alınır, yükleme yavaşlamaz.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor derivationExecutor(@Value("${storage.derivation.threads:2}") int threads,
+                                                     @Value("${storage.derivation.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("derivation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Giriş ve kayıt isteklerinin (BCrypt özetleme) çalıştığı havuz. İşlem işlemci yoğun olduğundan iş parçacığı sayısı
+     * çekirdek sayısıyla sınırlıdır; yoğun giriş anlarında Tomcat iş parçacıkları dosya aktarımlarına kalır.
+     * Kuyruk dolduğunda iş reddedilir, istek 503 ile hemen yanıtlanır.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${security.password.hashing-threads:0}") int threads,
+                                                          @Value("${security.password.hashing-queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Akışlı yanıtların (StreamingResponseBody) yazıldığı havuz; Spring MVC asenkron istekleri bu havuzda çalışır.
+     * Önceden açma işleri ayrı havuzda olduğu için yazma iş parçacıkları onları beklerken kilitlenmez.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamingExecutor(@Value("${storage.download.streaming-threads:16}") int threads,
+                                                    @Value("${storage.download.streaming-queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("streaming-");
+        executor.initialize();
+        return executor;
+    }
+}
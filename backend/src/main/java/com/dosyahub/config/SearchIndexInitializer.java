@@ -0,0 +1,57 @@
+package com.dosyahub.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Dosya adı aramasında kullanılan pg_trgm indeksini oluşturur.
+ * Şema Hibernate (ddl-auto) ile oluşturulduğunda GIN indeksleri tanımlanamadığı için başlangıçta eklenir;
+ * yetki yoksa veya veritabanı PostgreSQL değilse arama indekssiz çalışmaya devam eder.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexInitializer implements ApplicationRunner {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${storage.search.create-trigram-index:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || !isPostgres()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_file_metadata_filename_trgm " +
+                    "ON file_metadata USING gin (original_filename gin_trgm_ops)");
+            log.info("Dosya adı trigram indeksi hazır");
+        } catch (DataAccessException e) {
+            log.warn("Dosya adı trigram indeksi oluşturulamadı, arama indekssiz yapılacak: {}", e.getMessage());
+        }
+    }
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.dosyahub.config;
 
 import com.dosyahub.security.JwtAuthenticationFilter;
+import com.dosyahub.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -70,7 +73,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
-        configuration.setExposedHeaders(Arrays.asList("Content-Disposition", "Content-Type", "Content-Length", "Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Content-Disposition", "Content-Type", "Content-Length", "Authorization",
+                "Accept-Ranges", "Content-Range", "ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -79,8 +83,13 @@ public class SecurityConfig {
         return source;
     }
     
+    /**
+     * BCrypt maliyeti değiştirildiğinde eski maliyetle saklanan parolalar, girişte yeni maliyetle yeniden özetlenir
+     * ({@link com.dosyahub.security.UserDetailsServiceImpl#updatePassword})
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength,
+                                           MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), meterRegistry);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.dosyahub.config;
+
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Set;
+
+/**
+ * Akışlı yükleme uç noktalarını multipart çözümlemesinin dışında tutan çözümleyici.
+ * Bu yollarda istek gövdesi Tomcat tarafından geçici dizine yazılmaz; denetleyici gövdeyi
+ * kendisi parça parça okur. Diğer tüm istekler standart çözümleyiciyle işlenir.
+ */
+public class StreamingMultipartResolver extends StandardServletMultipartResolver {
+
+    public static final String STREAM_UPLOAD_PATH = "/files/upload/stream";
+
+    private static final Set<String> STREAMING_PATHS = Set.of(STREAM_UPLOAD_PATH);
+
+    @Override
+    public boolean isMultipart(HttpServletRequest request) {
+        if (STREAMING_PATHS.contains(request.getServletPath())) {
+            return false;
+        }
+        return super.isMultipart(request);
+    }
+}
@@ -1,28 +1,57 @@
 package com.dosyahub.config;
 
 import com.dosyahub.filter.CustomCorsFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final AsyncTaskExecutor streamingExecutor;
+    private final Duration streamingTimeout;
+
+    public WebConfig(@Qualifier("streamingExecutor") AsyncTaskExecutor streamingExecutor,
+                     @Value("${storage.download.streaming-timeout:1h}") Duration streamingTimeout) {
+        this.streamingExecutor = streamingExecutor;
+        this.streamingTimeout = streamingTimeout;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/*")
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD", "PATCH")
                 .allowedHeaders("*")
-                .exposedHeaders("Content-Disposition", "Content-Type", "Content-Length", "Authorization")
+                .exposedHeaders("Content-Disposition", "Content-Type", "Content-Length", "Authorization",
+                        "Accept-Ranges", "Content-Range", "ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
     
+    /**
+     * Akışlı yanıtlar (ZIP indirme) uzun sürebilir; varsayılan 30 saniyelik asenkron zaman aşımı yerine
+     * yapılandırılan süre ve sınırlı havuz kullanılır
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(streamingTimeout.toMillis());
+    }
+    
     @Bean
     public FilterRegistrationBean<CustomCorsFilter> customCorsFilterRegistration(CustomCorsFilter customCorsFilter) {
         FilterRegistrationBean<CustomCorsFilter> registrationBean = new FilterRegistrationBean<>(customCorsFilter);
@@ -30,4 +59,14 @@ public class WebConfig implements WebMvcConfigurer {
         registrationBean.addUrlPatterns("/*");
         return registrationBean;
     }
+    
+    /**
+     * Varsayılan multipart çözümleyicinin yerine akışlı yükleme yollarını atlayan çözümleyici
+     */
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public MultipartResolver multipartResolver(MultipartProperties multipartProperties) {
+        StreamingMultipartResolver resolver = new StreamingMultipartResolver();
+        resolver.setResolveLazily(multipartProperties.isResolveLazily());
+        return resolver;
+    }
 } 
\ No newline at end of file
@@ -8,8 +8,12 @@ import com.dosyahub.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -17,15 +21,24 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/auth")
-@RequiredArgsConstructor
 @Slf4j
 @Tag(name = "Kimlik Doğrulama", description = "Kullanıcı kimlik doğrulama işlemleri")
 public class AuthController {
 
     private final AuthService authService;
+    // BCrypt özetleme Tomcat iş parçacıklarında değil, sınırlı bu havuzda çalışır
+    private final AsyncTaskExecutor passwordHashingExecutor;
+
+    public AuthController(AuthService authService,
+                          @Qualifier("passwordHashingExecutor") AsyncTaskExecutor passwordHashingExecutor) {
+        this.authService = authService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+    }
 
     @PostMapping("/login")
     @Operation(
@@ -33,12 +46,12 @@ public class AuthController {
             description = "Kullanıcı adı ve şifre ile giriş yapılır",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Başarılı giriş"),
-                    @ApiResponse(responseCode = "401", description = "Kimlik doğrulama başarısız")
+                    @ApiResponse(responseCode = "401", description = "Kimlik doğrulama başarısız"),
+                    @ApiResponse(responseCode = "503", description = "Sunucu yoğun, istek daha sonra tekrarlanmalı")
             }
     )
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest loginRequest) {
-        AuthResponse response = authService.login(loginRequest);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody AuthRequest loginRequest) {
+        return hashAsync(() -> ResponseEntity.ok(authService.login(loginRequest)));
     }
     
     @PostMapping("/register")
@@ -47,11 +60,28 @@ public class AuthController {
             description = "Yeni kullanıcı kaydı oluşturulur",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Kayıt başarılı"),
-                    @ApiResponse(responseCode = "400", description = "Geçersiz istek")
+                    @ApiResponse(responseCode = "400", description = "Geçersiz istek"),
+                    @ApiResponse(responseCode = "503", description = "Sunucu yoğun, istek daha sonra tekrarlanmalı")
             }
     )
-    public ResponseEntity<UserDto> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        UserDto userDto = authService.register(registerRequest);
-        return ResponseEntity.ok(userDto);
+    public CompletableFuture<ResponseEntity<UserDto>> register(@Valid @RequestBody RegisterRequest registerRequest) {
+        return hashAsync(() -> ResponseEntity.ok(authService.register(registerRequest)));
+    }
+
+    /**
+     * Parola özetlemesi gerektiren işlemi özetleme havuzunda çalıştır. Havuzun kuyruğu doluysa istek beklemeden
+     * 503 ile yanıtlanır.
+     * @param action Çalıştırılacak işlem
+     * @return İşlemin yanıtı
+     */
+    private <T> CompletableFuture<ResponseEntity<T>> hashAsync(Supplier<ResponseEntity<T>> action) {
+        try {
+            return CompletableFuture.supplyAsync(action, passwordHashingExecutor);
+        } catch (TaskRejectedException e) {
+            log.warn("Parola özetleme kuyruğu dolu, istek reddedildi");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build());
+        }
     }
 } 
\ No newline at end of file
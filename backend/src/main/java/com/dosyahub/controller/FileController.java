@@ -1,9 +1,22 @@
 package com.dosyahub.controller;
 
-import com.dosyahub.model.User;
-import com.dosyahub.repository.UserRepository;
+import com.dosyahub.model.FileMetadata;
+import com.dosyahub.model.dto.BatchUploadResult;
+import com.dosyahub.model.dto.FileCursor;
+import com.dosyahub.model.dto.FileListing;
+import com.dosyahub.model.dto.PresignedUrl;
+import com.dosyahub.security.AuthenticatedUser;
+import com.dosyahub.service.BatchUploadService;
+import com.dosyahub.service.ChunkedUploadService;
+import com.dosyahub.service.ChunkedUploadService.UploadSession;
+import com.dosyahub.service.DerivationService;
+import com.dosyahub.service.FileContent;
+import com.dosyahub.service.FileListingCache;
 import com.dosyahub.service.FileStorageService;
 import com.dosyahub.service.MinioStorageService;
+import com.dosyahub.service.PdfPreviewDeriver;
+import com.dosyahub.service.ThumbnailDeriver;
+import com.dosyahub.service.ZipDownloadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,27 +25,55 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.io.input.CountingInputStream;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/files")
@@ -42,8 +83,12 @@ import java.util.UUID;
 public class FileController {
 
     private final FileStorageService fileStorageService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final BatchUploadService batchUploadService;
+    private final ZipDownloadService zipDownloadService;
+    private final DerivationService derivationService;
+    private final FileListingCache fileListingCache;
     private final MinioStorageService minioStorageService;
-    private final UserRepository userRepository;
 
     @Value("${storage.type}")
     private String storageType;
@@ -51,34 +96,404 @@ public class FileController {
     @Value("${minio.enabled}")
     private boolean minioEnabled;
     
+    @Value("${storage.upload.stream-max-file-size:1GB}")
+    private DataSize streamMaxFileSize;
+    
+    @Value("${storage.upload.batch-max-files:50}")
+    private int batchMaxFiles;
+    
+    @Value("${storage.download.sendfile-min-size:48KB}")
+    private DataSize sendfileMinSize;
+    
+    @Value("${storage.derivation.max-age:365d}")
+    private Duration derivedMaxAge;
+    
+    // Tomcat'in sendfile istek öznitelikleri; yanıt gövdesi Spring yerine doğrudan çekirdek tarafından gönderilir
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+    
     // Yedek olarak sabit bir kullanıcı ID'si (kimlik doğrulama çalışmazsa veya test için)
     private final UUID DEMO_USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
 
     /**
-     * Kimlik doğrulama ile kullanıcı ID'sini al veya demo ID kullan
+     * Kimlik doğrulama ile kullanıcı ID'sini al veya demo ID kullan.
+     * ID, kimliği doğrulanmış kullanıcı bilgisinden okunur; veritabanına gidilmez.
      * @return Kimlik doğrulamadan gelen kullanıcı ID'si veya demo ID
      */
     private UUID getCurrentUserId() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.getName() != null) {
-                String email = authentication.getName();
-                return userRepository.findByEmail(email)
-                        .map(User::getId)
-                        .orElse(DEMO_USER_ID);
+            if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+                return user.getId();
             }
         } catch (Exception e) {
             log.warn("Kullanıcı kimliği alınamadı, demo ID kullanılıyor", e);
         }
         return DEMO_USER_ID;
     }
+    
+    /**
+     * Yüklenebilecek dosya formatı mı kontrol et - Sadece PDF, PNG ve JPG dosyaları desteklenir
+     * @param contentType İçerik tipi
+     * @return Destekleniyorsa true
+     */
+    private boolean isSupportedContentType(String contentType) {
+        return contentType != null && (contentType.equals("application/pdf") ||
+                                       contentType.equals("image/png") ||
+                                       contentType.equals("image/jpeg"));
+    }
+    
+    /**
+     * Yükleme oturumunun durumunu yanıt formatına dönüştür
+     * @param session Oturum
+     * @return Oturum bilgileri
+     */
+    private Map<String, Object> toUploadSessionResponse(UploadSession session) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("uploadId", session.getId());
+        response.put("fileName", session.getOriginalFilename());
+        response.put("contentType", session.getContentType());
+        response.put("size", session.getSize());
+        response.put("chunkSize", session.getChunkSize());
+        response.put("totalChunks", session.getTotalChunks());
+        response.put("receivedChunks", session.getReceivedChunks());
+        response.put("missingChunks", session.getMissingChunks());
+        response.put("status", "pending");
+        return response;
+    }
+    
+    /**
+     * İmzalı adresi yanıt formatına dönüştür
+     * @param presignedUrl İmzalı adres
+     * @return Adres bilgileri
+     */
+    private Map<String, Object> toPresignedUrlResponse(PresignedUrl presignedUrl) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("fileName", presignedUrl.getObjectName());
+        response.put("url", presignedUrl.getUrl());
+        response.put("method", presignedUrl.getMethod());
+        response.put("expiresAt", presignedUrl.getExpiresAt().toString());
+        response.put("status", "success");
+        return response;
+    }
+    
+    /**
+     * İmzalı adresler sadece MinIO depolamasında kullanılabilir
+     */
+    private void requireMinio() {
+        if (!(minioEnabled && "minio".equals(storageType))) {
+            throw new IllegalStateException("İmzalı adresler sadece MinIO depolamasında desteklenir");
+        }
+    }
+    
+    private ResponseEntity<Map<String, Object>> uploadSessionNotFound(UUID uploadId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Yükleme oturumu bulunamadı: " + uploadId);
+        response.put("status", "error");
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+    
+    /**
+     * Hata zincirinde belirtilen türde bir neden olup olmadığını kontrol et
+     * @param e Hata
+     * @param type Aranan hata türü
+     * @return Zincirde varsa true
+     */
+    private boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * İndirme yanıtını oluştur. Range başlığı varsa (ve If-Range koşulu sağlanıyorsa) sadece istenen aralıklar
+     * 206 ile döndürülür; birden çok aralık multipart/byteranges gövdesinde sırayla gönderilir.
+     * Depoda sıkıştırılmış saklanan içerik, kodlamayı kabul eden istemcilere aralık istenmediğinde çözülmeden
+     * (Content-Encoding ile) gönderilir; diğer istemcilere akış halinde çözülerek gönderilir.
+     * @param stored İndirilecek dosya içeriği
+     * @param contentDisposition Content-Disposition başlığı
+     * @param requestHeaders İstek başlıkları
+     * @param request Sunucu isteği (sendfile desteği için)
+     * @return 200, 206, 304 veya 416 yanıtı
+     */
+    private ResponseEntity<InputStreamResource> toDownloadResponse(FileContent stored, String contentDisposition,
+                                                                   HttpHeaders requestHeaders,
+                                                                   HttpServletRequest request) throws IOException {
+        FileContent content = stored;
+        HttpHeaders headers = new HttpHeaders();
+        FileContent encoded = stored.getEncoded();
+        if (encoded != null) {
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            if (!requestHeaders.containsKey(HttpHeaders.RANGE)
+                    && acceptsEncoding(requestHeaders, encoded.getContentEncoding())) {
+                content = encoded;
+                headers.set(HttpHeaders.CONTENT_ENCODING, encoded.getContentEncoding());
+            }
+        }
+        long size = content.getSize();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag(content.getETag());
+        headers.setLastModified(content.getLastModified());
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+
+        // Koşullu GET: istemcideki kopya güncelse içerik akışı hiç açılmaz
+        boolean safeMethod = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        if (safeMethod && isNotModified(requestHeaders, content.getETag(), content.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(content.getETag())
+                    .lastModified(content.getLastModified())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .build();
+        }
+
+        String rangeHeader = requestHeaders.getFirst(HttpHeaders.RANGE);
+        List<HttpRange> httpRanges = List.of();
+        if (rangeHeader != null && matchesIfRange(requestHeaders.getFirst(HttpHeaders.IF_RANGE), content)) {
+            try {
+                httpRanges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                // Geçersiz Range başlığı yok sayılır, dosyanın tamamı gönderilir
+                log.debug("Geçersiz Range başlığı yok sayıldı: {}", rangeHeader);
+            }
+        }
+
+        List<ByteRange> ranges = new ArrayList<>();
+        long rangesLength = 0;
+        for (HttpRange httpRange : httpRanges) {
+            long start = httpRange.getRangeStart(size);
+            long end = httpRange.getRangeEnd(size);
+            if (start < size && start <= end) {
+                ranges.add(new ByteRange(start, end));
+                rangesLength += end - start + 1;
+            }
+        }
+
+        if (!httpRanges.isEmpty() && ranges.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+
+        // Aralık yoksa veya aralıklar toplamda dosyadan büyükse (örtüşen aralıklarla kötüye kullanım) tamamı gönderilir
+        if (ranges.isEmpty() || (ranges.size() > 1 && rangesLength > size)) {
+            headers.setContentLength(size);
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(openBody(content, 0, size, request));
+        }
+
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            headers.set(HttpHeaders.CONTENT_RANGE, range.toContentRange(size));
+            headers.setContentLength(range.length());
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .headers(headers)
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(openBody(content, range.start(), range.length(), request));
+        }
+
+        // Her aralık, sırası geldiğinde depodan ayrı bir aralıklı okuma ile açılır
+        FileContent source = content;
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        List<Callable<InputStream>> parts = new ArrayList<>();
+        long contentLength = 0;
+        for (ByteRange range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + MediaType.APPLICATION_OCTET_STREAM_VALUE + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + range.toContentRange(size) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            parts.add(() -> new ByteArrayInputStream(partHeader));
+            parts.add(() -> source.open(range.start(), range.length()));
+            contentLength += partHeader.length + range.length();
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        parts.add(() -> new ByteArrayInputStream(closing));
+        contentLength += closing.length;
+
+        Iterator<Callable<InputStream>> remaining = parts.iterator();
+        InputStream body = new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return remaining.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return remaining.next().call();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        headers.setContentLength(contentLength);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .contentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary))
+                .body(new InputStreamResource(body));
+    }
+
+    /**
+     * Türetilen içerik (küçük resim, önizleme) yanıtını oluştur. Türetilen içerik kaynak dosyanın içeriğine bağlıdır ve
+     * değişmez; tarayıcı max-age boyunca tekrar istemez, süre dolunca ETag ile 304 alır.
+     * @param content Türetilen içerik
+     * @param requestHeaders İstek başlıkları
+     * @param request Sunucu isteği (sendfile desteği için)
+     * @return 200 veya 304 yanıtı
+     */
+    private ResponseEntity<InputStreamResource> toDerivedResponse(FileContent content, HttpHeaders requestHeaders,
+                                                                  HttpServletRequest request) throws IOException {
+        CacheControl cacheControl = CacheControl.maxAge(derivedMaxAge).cachePrivate();
+        if (isNotModified(requestHeaders, content.getETag(), content.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(content.getETag())
+                    .lastModified(content.getLastModified())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(content.getETag())
+                .lastModified(content.getLastModified())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(content.getContentType()))
+                .contentLength(content.getSize())
+                .body(openBody(content, 0, content.getSize(), request));
+    }
+
+    /**
+     * İstemcinin Accept-Encoding başlığında kodlamayı kabul edip etmediğini kontrol et
+     * @param requestHeaders İstek başlıkları
+     * @param coding İçerik kodlaması
+     * @return Kodlama (veya "*") listede ve q=0 ile reddedilmemişse true
+     */
+    private boolean acceptsEncoding(HttpHeaders requestHeaders, String coding) {
+        for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String element : value.split(",")) {
+                String[] params = element.split(";");
+                String name = params[0].trim();
+                if (!name.equalsIgnoreCase(coding) && !"*".equals(name)) {
+                    continue;
+                }
+                for (int i = 1; i < params.length; i++) {
+                    String param = params[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            return Double.parseDouble(param.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Yanıt gövdesini hazırla. Yerel dosyalar, kapsayıcı destekliyorsa sendfile ile gönderilir: bu durumda gövde boş
+     * bırakılır ve Tomcat dosyayı FileChannel.transferTo ile kullanıcı alanına kopyalamadan sokete aktarır.
+     * @param content Dosya içeriği
+     * @param start Başlangıç konumu
+     * @param length Gönderilecek bayt sayısı
+     * @param request Sunucu isteği
+     * @return Gövde akışı (sendfile kullanılıyorsa null)
+     */
+    private InputStreamResource openBody(FileContent content, long start, long length,
+                                         HttpServletRequest request) throws IOException {
+        if (content.getFile() != null && length >= sendfileMinSize.toBytes()
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, content.getFile().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + length);
+            return null;
+        }
+        return new InputStreamResource(content.open(start, length));
+    }
+
+    /**
+     * Koşullu isteğin yanıtı değişmedi mi kontrol et. If-None-Match varsa sadece o (zayıf karşılaştırma ile)
+     * değerlendirilir, yoksa If-Modified-Since son değişiklik zamanıyla karşılaştırılır.
+     * @param requestHeaders İstek başlıkları
+     * @param eTag Güncel sürüm etiketi
+     * @param lastModified Son değişiklik zamanı (bilinmiyorsa null)
+     * @return İstemcideki kopya güncelse true (304 döndürülmeli)
+     */
+    private boolean isNotModified(HttpHeaders requestHeaders, String eTag, Instant lastModified) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            String opaqueTag = stripWeakPrefix(eTag);
+            return ifNoneMatch.stream()
+                    .anyMatch(candidate -> "*".equals(candidate) || stripWeakPrefix(candidate).equals(opaqueTag));
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        // HTTP tarihleri saniye hassasiyetindedir
+        return lastModified != null && ifModifiedSince >= 0 && lastModified.getEpochSecond() * 1000 <= ifModifiedSince;
+    }
+
+    private String stripWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * If-Range koşulunu kontrol et: değer güçlü bir sürüm etiketi veya son değişiklik tarihi olabilir
+     * @param ifRange If-Range başlığı
+     * @param content Dosya içeriği
+     * @return Koşul yoksa veya dosya değişmediyse true (aralıklar uygulanır)
+     */
+    private boolean matchesIfRange(String ifRange, FileContent content) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(content.getETag());
+        }
+        if (ifRange.startsWith("W/")) {
+            // Zayıf etiketlerle aralık istenemez
+            return false;
+        }
+        try {
+            Instant date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return content.getLastModified().getEpochSecond() == date.getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Dosya boyutuna göre çözümlenmiş bayt aralığı (başlangıç ve bitiş dahil)
+     */
+    private record ByteRange(long start, long end) {
+
+        long length() {
+            return end - start + 1;
+        }
+
+        String toContentRange(long size) {
+            return "bytes " + start + "-" + end + "/" + size;
+        }
+    }
 
     @GetMapping
     @Operation(
             summary = "Dosyaları Listele",
-            description = "Kullanıcıya ait dosyaları listeler, sayfalama ve sıralama desteği ile",
+            description = "Kullanıcıya ait dosyaları listeler, sayfalama ve sıralama desteği ile. " +
+                    "uploadDate veya size sıralamasında yanıttaki nextCursor ile derin sayfalara sabit maliyetle geçilebilir",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Dosyalar başarıyla listelendi"),
+                    @ApiResponse(responseCode = "304", description = "Liste değişmedi (If-None-Match)", content = @Content),
+                    @ApiResponse(responseCode = "400", description = "Geçersiz imleç", content = @Content),
                     @ApiResponse(responseCode = "500", description = "Sunucu hatası", content = @Content)
             }
     )
@@ -86,51 +501,86 @@ public class FileController {
             @Parameter(description = "Sayfa numarası (0'dan başlar)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Sayfa başına öğe sayısı") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sıralama kriteri (örn: uploadDate,desc)") @RequestParam(required = false) String sort,
-            @Parameter(description = "Arama terimi") @RequestParam(required = false) String search) {
+            @Parameter(description = "Arama terimi") @RequestParam(required = false) String search,
+            @Parameter(description = "Önceki yanıttaki nextCursor değeri (verilirse page ve sort yok sayılır)") @RequestParam(required = false) String cursor,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders) {
         
         try {
             // Kimlik doğrulamadan kullanıcı ID'sini al
             UUID userId = getCurrentUserId();
             log.info("Dosya listeleme isteği kullanıcı ID: {}", userId);
             
-            // Sıralama parametresini işle
-            Sort sortBy = Sort.unsorted();
-            if (sort != null && !sort.isEmpty()) {
-                String[] sortParams = sort.split(",");
-                String sortField = sortParams[0];
-                String sortDirection = sortParams.length > 1 ? sortParams[1] : "asc";
+            // Kullanıcının dosyaları değişmediyse liste hiç oluşturulmadan 304 döner
+            String eTag = fileListingCache.getETag(userId);
+            if (isNotModified(requestHeaders, eTag, null)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build();
+            }
+            
+            FileListing listing;
+            Map<String, Object> response = new HashMap<>();
+            
+            if (cursor != null && !cursor.isEmpty()) {
+                // İmleç ile sayfalama: sıralama imlecin içinde taşınır, OFFSET kullanılmaz
+                FileCursor fileCursor = FileCursor.decode(cursor);
                 
-                sortBy = Sort.by(sortDirection.equalsIgnoreCase("desc") ? 
-                        Sort.Direction.DESC : Sort.Direction.ASC, sortField);
+                if (minioEnabled && "minio".equals(storageType)) {
+                    listing = minioStorageService.listFilesAfter(userId, fileCursor, search, size);
+                } else {
+                    listing = fileStorageService.listFilesAfter(userId, fileCursor, search, size);
+                }
             } else {
-                // Varsayılan olarak yükleme tarihine göre azalan sırada sırala
-                sortBy = Sort.by(Sort.Direction.DESC, "uploadDate");
+                // Sıralama parametresini işle
+                Sort sortBy = Sort.unsorted();
+                if (sort != null && !sort.isEmpty()) {
+                    String[] sortParams = sort.split(",");
+                    String sortField = sortParams[0];
+                    String sortDirection = sortParams.length > 1 ? sortParams[1] : "asc";
+                    
+                    sortBy = Sort.by(sortDirection.equalsIgnoreCase("desc") ? 
+                            Sort.Direction.DESC : Sort.Direction.ASC, sortField);
+                } else {
+                    // Varsayılan olarak yükleme tarihine göre azalan sırada sırala
+                    sortBy = Sort.by(Sort.Direction.DESC, "uploadDate");
+                }
+                
+                Pageable pageable = PageRequest.of(page, size, sortBy);
+                
+                if (minioEnabled && "minio".equals(storageType)) {
+                    // MinIO için liste ve toplam sayı metadata tablosundan gelir
+                    listing = minioStorageService.listFiles(userId, pageable, search);
+                } else {
+                    // Dosya sistemi için implementasyon
+                    listing = fileStorageService.listFiles(userId, pageable, search);
+                }
+                
+                response.put("currentPage", page);
+                response.put("totalPages", (int) Math.ceil((double) listing.getTotalCount() / size));
             }
             
-            Pageable pageable = PageRequest.of(page, size, sortBy);
+            response.put("files", listing.getFiles());
+            if (listing.getTotalCount() != null) {
+                response.put("totalCount", listing.getTotalCount());
+            }
+            if (listing.getNextCursor() != null) {
+                response.put("nextCursor", listing.getNextCursor());
+            }
             
-            // Dosya listesini getir (burada gerçek implementasyon servisteki metoda bağlı olacak)
-            List<Map<String, Object>> files;
-            long totalCount = 0;
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(response);
             
-            if (minioEnabled && "minio".equals(storageType)) {
-                // MinIO için implementasyon (örnek olarak gösteriyorum, gerçek metoda bağlı)
-                files = minioStorageService.listFiles(userId, pageable, search);
-                totalCount = minioStorageService.countFiles(userId, search);
-            } else {
-                // Dosya sistemi için implementasyon
-                files = fileStorageService.listFiles(userId, pageable, search);
-                totalCount = fileStorageService.countFiles(userId, search);
-            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Geçersiz dosya listeleme isteği: {}", e.getMessage());
             
             Map<String, Object> response = new HashMap<>();
-            response.put("files", files);
-            response.put("totalCount", totalCount);
-            response.put("currentPage", page);
-            response.put("totalPages", (int) Math.ceil((double) totalCount / size));
-            
-            return ResponseEntity.ok(response);
+            response.put("error", e.getMessage());
+            response.put("status", "error");
             
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             log.error("Dosya listeleme hatası", e);
             
@@ -157,9 +607,7 @@ public class FileController {
         try {
             // Dosya formatı kontrolü - Sadece PDF, PNG ve JPG dosyaları desteklenir
             String contentType = file.getContentType();
-            if (contentType == null || !(contentType.equals("application/pdf") || 
-                                        contentType.equals("image/png") || 
-                                        contentType.equals("image/jpeg"))) {
+            if (!isSupportedContentType(contentType)) {
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("error", "Desteklenmeyen dosya formatı. Sadece PDF, PNG ve JPG dosyaları yüklenebilir.");
@@ -199,37 +647,464 @@ public class FileController {
         }
     }
 
+    @PostMapping("/upload/batch")
+    @Operation(
+            summary = "Toplu Dosya Yükle",
+            description = "Tek istekte birden çok dosya yükler. Dosyalar depolamaya eşzamanlı yazılır ve her dosya için " +
+                    "ayrı sonuç döner; bir dosyanın başarısız olması diğerlerini etkilemez",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Dosya bazında yükleme sonuçları"),
+                    @ApiResponse(responseCode = "400", description = "Geçersiz istek", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> uploadFiles(
+            @Parameter(description = "Yüklenecek dosyalar") @RequestParam("files") List<MultipartFile> files) {
+        try {
+            if (files.isEmpty() || files.size() > batchMaxFiles) {
+                throw new IllegalArgumentException("Tek istekte 1 ile " + batchMaxFiles + " arasında dosya yüklenebilir");
+            }
+            
+            UUID userId = getCurrentUserId();
+            log.info("Toplu dosya yükleme isteği kullanıcı ID: {}, dosya sayısı: {}", userId, files.size());
+            
+            List<BatchUploadResult> results = batchUploadService.storeFiles(userId, files, this::isSupportedContentType);
+            long successCount = results.stream().filter(result -> "success".equals(result.getStatus())).count();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("files", results);
+            response.put("successCount", successCount);
+            response.put("errorCount", results.size() - successCount);
+            response.put("status", successCount == results.size() ? "success" : successCount == 0 ? "error" : "partial");
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Toplu dosya yükleme hatası", e);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Yol StreamingMultipartResolver.STREAM_UPLOAD_PATH ile aynı olmalı, aksi halde gövde önceden ayrıştırılır
+    @PostMapping(value = "/upload/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Dosya Yükle (akışlı)",
+            description = "Multipart gövdeyi geçici dosyaya yazmadan okuyup doğrudan depolamaya aktarır. " +
+                    "Büyük dosyalar için önerilir; \"file\" parçası dışındaki alanlar yok sayılır",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Dosya başarıyla yüklendi"),
+                    @ApiResponse(responseCode = "400", description = "Geçersiz istek veya desteklenmeyen dosya formatı", content = @Content),
+                    @ApiResponse(responseCode = "413", description = "Dosya boyutu sınırı aşıldı", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> uploadFileStream(HttpServletRequest request) {
+        try {
+            if (!ServletFileUpload.isMultipartContent(request)) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("error", "İstek multipart/form-data olmalıdır");
+                response.put("status", "error");
+                
+                return ResponseEntity.badRequest().body(response);
+            }
+            
+            UUID userId = getCurrentUserId();
+            log.info("Akışlı dosya yükleme isteği kullanıcı ID: {}", userId);
+            
+            ServletFileUpload upload = new ServletFileUpload();
+            upload.setFileSizeMax(streamMaxFileSize.toBytes());
+            
+            // Parçalar gövdeden sırayla okunur; dosya parçası okunurken doğrudan depolamaya aktarılır
+            FileItemIterator items = upload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemStream item = items.next();
+                if (item.isFormField() || !"file".equals(item.getFieldName())) {
+                    continue;
+                }
+                
+                String contentType = item.getContentType();
+                if (!isSupportedContentType(contentType)) {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("error", "Desteklenmeyen dosya formatı. Sadece PDF, PNG ve JPG dosyaları yüklenebilir.");
+                    response.put("status", "error");
+                    
+                    return ResponseEntity.badRequest().body(response);
+                }
+                
+                String originalFilename = StringUtils.getFilename(item.getName());
+                if (originalFilename == null || originalFilename.isBlank()) {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("error", "Dosya adı belirtilmemiş");
+                    response.put("status", "error");
+                    
+                    return ResponseEntity.badRequest().body(response);
+                }
+                
+                CountingInputStream content = new CountingInputStream(item.openStream());
+                String storedFileName;
+                if (minioEnabled && "minio".equals(storageType)) {
+                    storedFileName = minioStorageService.storeFile(userId, originalFilename, contentType, content);
+                    log.info("Dosya MinIO'ya akışla yüklendi: {}", storedFileName);
+                } else {
+                    storedFileName = fileStorageService.storeFile(userId, originalFilename, contentType, content);
+                    log.info("Dosya dosya sistemine akışla yüklendi: {}", storedFileName);
+                }
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("fileName", storedFileName);
+                response.put("fileSize", content.getByteCount());
+                response.put("contentType", contentType);
+                response.put("status", "success");
+                
+                return ResponseEntity.ok(response);
+            }
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", "İstekte \"file\" parçası bulunamadı");
+            response.put("status", "error");
+            
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            log.error("Akışlı dosya yükleme hatası", e);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            if (hasCause(e, FileUploadBase.FileSizeLimitExceededException.class)) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+            }
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping("/uploads")
+    @Operation(
+            summary = "Parçalı Yükleme Başlat",
+            description = "Devam ettirilebilir yükleme oturumu açar. Yanıttaki chunkSize ve totalChunks değerlerine göre " +
+                    "parçalar ayrı isteklerle (paralel de olabilir) gönderilir",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Oturum oluşturuldu"),
+                    @ApiResponse(responseCode = "400", description = "Geçersiz istek veya desteklenmeyen dosya formatı", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> createUploadSession(
+            @Parameter(description = "Dosya bilgisi (fileName, contentType, size)") @RequestBody Map<String, Object> requestBody) {
+        try {
+            String fileName = StringUtils.getFilename((String) requestBody.get("fileName"));
+            String contentType = (String) requestBody.get("contentType");
+            Object size = requestBody.get("size");
+            if (fileName == null || fileName.isBlank() || !(size instanceof Number)) {
+                throw new IllegalArgumentException("fileName ve size alanları gereklidir");
+            }
+            if (!isSupportedContentType(contentType)) {
+                throw new IllegalArgumentException("Desteklenmeyen dosya formatı. Sadece PDF, PNG ve JPG dosyaları yüklenebilir.");
+            }
+            
+            UUID userId = getCurrentUserId();
+            UploadSession session = chunkedUploadService.createSession(userId, fileName, contentType,
+                    ((Number) size).longValue());
+            
+            return ResponseEntity.ok(toUploadSessionResponse(session));
+        } catch (Exception e) {
+            log.error("Yükleme oturumu oluşturma hatası", e);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PutMapping(value = "/uploads/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Parça Yükle",
+            description = "Yükleme oturumunun belirtilen parçasını ham gövde olarak yükler. Başarısız parça tekrar gönderilebilir",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Parça kaydedildi"),
+                    @ApiResponse(responseCode = "400", description = "Geçersiz parça", content = @Content),
+                    @ApiResponse(responseCode = "404", description = "Oturum bulunamadı", content = @Content),
+                    @ApiResponse(responseCode = "409", description = "Oturum tamamlanıyor", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> uploadChunk(
+            @Parameter(description = "Yükleme oturumu ID") @PathVariable UUID uploadId,
+            @Parameter(description = "Parça sırası (0'dan başlar)") @PathVariable int index,
+            HttpServletRequest request) {
+        UUID userId = getCurrentUserId();
+        Optional<UploadSession> session = chunkedUploadService.findSession(userId, uploadId);
+        if (session.isEmpty()) {
+            return uploadSessionNotFound(uploadId);
+        }
+        
+        try {
+            chunkedUploadService.writeChunk(session.get(), index, request.getContentLengthLong(), request.getInputStream());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("uploadId", uploadId);
+            response.put("index", index);
+            response.put("status", "received");
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Parça yükleme hatası: oturum={}, parça={}", uploadId, index, e);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            if (e instanceof IllegalStateException) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(
+            summary = "Parçalı Yükleme Durumu",
+            description = "Alınan ve eksik parçaları döndürür; bağlantı koptuktan sonra sadece eksik parçalar gönderilir",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Oturum durumu"),
+                    @ApiResponse(responseCode = "404", description = "Oturum bulunamadı", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> getUploadSession(
+            @Parameter(description = "Yükleme oturumu ID") @PathVariable UUID uploadId) {
+        return chunkedUploadService.findSession(getCurrentUserId(), uploadId)
+                .map(session -> ResponseEntity.ok(toUploadSessionResponse(session)))
+                .orElseGet(() -> uploadSessionNotFound(uploadId));
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    @Operation(
+            summary = "Parçalı Yüklemeyi Tamamla",
+            description = "Tüm parçalar alındıysa dosyayı birleştirip kaydeder",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Dosya başarıyla yüklendi"),
+                    @ApiResponse(responseCode = "404", description = "Oturum bulunamadı", content = @Content),
+                    @ApiResponse(responseCode = "409", description = "Eksik parçalar var veya oturum zaten tamamlanıyor", content = @Content),
+                    @ApiResponse(responseCode = "500", description = "Sunucu hatası", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> completeUploadSession(
+            @Parameter(description = "Yükleme oturumu ID") @PathVariable UUID uploadId) {
+        UUID userId = getCurrentUserId();
+        Optional<UploadSession> session = chunkedUploadService.findSession(userId, uploadId);
+        if (session.isEmpty()) {
+            return uploadSessionNotFound(uploadId);
+        }
+        
+        try {
+            String storedFileName = chunkedUploadService.complete(session.get());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("fileName", storedFileName);
+            response.put("fileSize", session.get().getSize());
+            response.put("contentType", session.get().getContentType());
+            response.put("status", "success");
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            Map<String, Object> response = toUploadSessionResponse(session.get());
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            log.error("Parçalı yükleme tamamlama hatası: oturum={}", uploadId, e);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(
+            summary = "Parçalı Yüklemeyi İptal Et",
+            description = "Oturumu kapatır ve yüklenen parçaları siler",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Oturum iptal edildi"),
+                    @ApiResponse(responseCode = "404", description = "Oturum bulunamadı", content = @Content),
+                    @ApiResponse(responseCode = "409", description = "Oturum tamamlanıyor", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> abortUploadSession(
+            @Parameter(description = "Yükleme oturumu ID") @PathVariable UUID uploadId) {
+        UUID userId = getCurrentUserId();
+        Optional<UploadSession> session = chunkedUploadService.findSession(userId, uploadId);
+        if (session.isEmpty()) {
+            return uploadSessionNotFound(uploadId);
+        }
+        
+        try {
+            chunkedUploadService.abort(session.get());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("uploadId", uploadId);
+            response.put("status", "aborted");
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
+
+    @PostMapping("/presigned/upload")
+    @Operation(
+            summary = "İmzalı Yükleme Adresi Al",
+            description = "Dosyanın uygulama sunucusundan geçmeden doğrudan MinIO'ya PUT ile yüklenebileceği kısa ömürlü " +
+                    "adresi döndürür. Yükleme bitince /presigned/upload/complete çağrılmalıdır (sadece MinIO)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "İmzalı adres oluşturuldu"),
+                    @ApiResponse(responseCode = "400", description = "Geçersiz istek, desteklenmeyen format veya MinIO devre dışı", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> createPresignedUpload(
+            @Parameter(description = "Dosya bilgisi (fileName, contentType)") @RequestBody Map<String, String> requestBody) {
+        try {
+            requireMinio();
+            String fileName = StringUtils.getFilename(requestBody.get("fileName"));
+            if (fileName == null || fileName.isBlank()) {
+                throw new IllegalArgumentException("Dosya adı gereklidir");
+            }
+            if (!isSupportedContentType(requestBody.get("contentType"))) {
+                throw new IllegalArgumentException("Desteklenmeyen dosya formatı. Sadece PDF, PNG ve JPG dosyaları yüklenebilir.");
+            }
+            
+            UUID userId = getCurrentUserId();
+            PresignedUrl presignedUrl = minioStorageService.createPresignedUpload(userId, fileName);
+            log.info("İmzalı yükleme adresi oluşturuldu kullanıcı ID: {}, nesne: {}", userId, presignedUrl.getObjectName());
+            
+            return ResponseEntity.ok(toPresignedUrlResponse(presignedUrl));
+        } catch (Exception e) {
+            log.error("İmzalı yükleme adresi hatası", e);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping("/presigned/upload/complete")
+    @Operation(
+            summary = "İmzalı Yüklemeyi Tamamla",
+            description = "İmzalı adresle MinIO'ya yüklenen nesneyi doğrular ve dosya kaydını oluşturur",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Dosya başarıyla kaydedildi"),
+                    @ApiResponse(responseCode = "400", description = "Nesne bulunamadı, boş veya desteklenmeyen formatta", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> completePresignedUpload(
+            @Parameter(description = "Yüklenen nesne bilgisi (objectName)") @RequestBody Map<String, String> requestBody) {
+        try {
+            requireMinio();
+            UUID userId = getCurrentUserId();
+            FileMetadata metadata = minioStorageService.completePresignedUpload(userId,
+                    requestBody.get("objectName"), this::isSupportedContentType);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("fileName", metadata.getStoredFilename());
+            response.put("fileSize", metadata.getSize());
+            response.put("contentType", metadata.getContentType());
+            response.put("status", "success");
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("İmzalı yükleme tamamlama hatası", e);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping("/presigned/download")
+    @Operation(
+            summary = "İmzalı İndirme Adresi Al",
+            description = "Dosyanın doğrudan MinIO'dan indirilebileceği kısa ömürlü adresi döndürür (sadece MinIO)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "İmzalı adres oluşturuldu"),
+                    @ApiResponse(responseCode = "400", description = "MinIO devre dışı", content = @Content),
+                    @ApiResponse(responseCode = "404", description = "Dosya bulunamadı", content = @Content)
+            }
+    )
+    public ResponseEntity<Map<String, Object>> createPresignedDownload(
+            @Parameter(description = "İndirilecek dosyanın ID'si veya adı") @RequestParam String fileName) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            requireMinio();
+        } catch (IllegalStateException e) {
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.badRequest().body(response);
+        }
+        
+        try {
+            UUID userId = getCurrentUserId();
+            PresignedUrl presignedUrl = minioStorageService.createPresignedDownload(userId, fileName);
+            
+            return ResponseEntity.ok(toPresignedUrlResponse(presignedUrl));
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            log.error("İmzalı indirme adresi hatası", e);
+            
+            response.put("error", e.getMessage());
+            response.put("status", "error");
+            
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     @GetMapping("/download/{fileName}")
     @Operation(
             summary = "Dosya İndir",
-            description = "Belirtilen dosyayı indirir",
+            description = "Belirtilen dosyayı indirir. Range başlığı ile dosyanın bir veya birden çok bölümü istenebilir",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Dosya başarıyla indirildi"),
+                    @ApiResponse(responseCode = "206", description = "İstenen bayt aralıkları indirildi"),
+                    @ApiResponse(responseCode = "304", description = "Dosya değişmedi (If-None-Match / If-Modified-Since)", content = @Content),
                     @ApiResponse(responseCode = "404", description = "Dosya bulunamadı", content = @Content),
+                    @ApiResponse(responseCode = "416", description = "İstenen aralık dosya boyutunun dışında", content = @Content),
                     @ApiResponse(responseCode = "500", description = "Sunucu hatası", content = @Content)
             }
     )
     public ResponseEntity<InputStreamResource> downloadFile(
-            @Parameter(description = "İndirilecek dosya adı") @PathVariable String fileName) {
+            @Parameter(description = "İndirilecek dosyanın ID'si veya adı") @PathVariable String fileName,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders,
+            HttpServletRequest request) {
         try {
             // Kimlik doğrulamadan kullanıcı ID'sini al
             UUID userId = getCurrentUserId();
             log.info("Dosya indirme isteği kullanıcı ID: {}, dosya adı: {}", userId, fileName);
             
-            InputStream fileStream;
+            FileContent content;
             if (minioEnabled && "minio".equals(storageType)) {
-                fileStream = minioStorageService.getFileAsStream(fileName);
+                content = minioStorageService.getFileContent(userId, fileName);
             } else {
-                fileStream = fileStorageService.getFileAsStream(userId, fileName);
+                content = fileStorageService.getFileContent(userId, fileName);
             }
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(new InputStreamResource(fileStream));
+            return toDownloadResponse(content, "attachment; filename=" + fileName, requestHeaders, request);
         } catch (Exception e) {
             log.error("Dosya indirme hatası: {}", e.getMessage(), e);
             return ResponseEntity.notFound().build();
@@ -242,12 +1117,16 @@ public class FileController {
             description = "Belirtilen dosyayı indirir (Request Body ile)",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Dosya başarıyla indirildi"),
+                    @ApiResponse(responseCode = "206", description = "İstenen bayt aralıkları indirildi"),
                     @ApiResponse(responseCode = "404", description = "Dosya bulunamadı", content = @Content),
+                    @ApiResponse(responseCode = "416", description = "İstenen aralık dosya boyutunun dışında", content = @Content),
                     @ApiResponse(responseCode = "500", description = "Sunucu hatası", content = @Content)
             }
     )
     public ResponseEntity<InputStreamResource> downloadFileWithRequestBody(
-            @Parameter(description = "İndirilecek dosya bilgisi") @RequestBody Map<String, String> requestBody) {
+            @Parameter(description = "İndirilecek dosya bilgisi") @RequestBody Map<String, String> requestBody,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders,
+            HttpServletRequest request) {
         try {
             String fileName = requestBody.get("fileName");
             if (fileName == null || fileName.isEmpty()) {
@@ -258,11 +1137,11 @@ public class FileController {
             UUID userId = getCurrentUserId();
             log.info("Dosya indirme isteği (POST) kullanıcı ID: {}, dosya adı: {}", userId, fileName);
             
-            InputStream fileStream;
+            FileContent content;
             if (minioEnabled && "minio".equals(storageType)) {
-                fileStream = minioStorageService.getFileAsStream(fileName);
+                content = minioStorageService.getFileContent(userId, fileName);
             } else {
-                fileStream = fileStorageService.getFileAsStream(userId, fileName);
+                content = fileStorageService.getFileContent(userId, fileName);
             }
             
             // Dosya adından / karakterlerini temizleyerek attachment adını oluştur
@@ -276,16 +1155,111 @@ public class FileController {
                 .replace("+", "%20"); // URL kodlamasında boşluklar + işaretine dönüşür, bunu düzeltiyoruz
 
             // RFC 5987 formatında dosya adını ayarlıyoruz
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, 
-                "attachment; filename=\"" + encodedFileName + "\"; filename*=UTF-8''" + encodedFileName);
+            return toDownloadResponse(content,
+                "attachment; filename=\"" + encodedFileName + "\"; filename*=UTF-8''" + encodedFileName,
+                requestHeaders, request);
+        } catch (Exception e) {
+            log.error("Dosya indirme hatası (POST): {}", e.getMessage(), e);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/download/zip")
+    @Operation(
+            summary = "Dosyaları ZIP Olarak İndir",
+            description = "Seçilen dosyaları (fileIds), arama sonucunu (search) veya hiçbiri verilmezse tüm dosyaları " +
+                    "tek bir ZIP arşivi olarak indirir. Arşiv oluşturulurken aktarılır",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Arşiv aktarılıyor"),
+                    @ApiResponse(responseCode = "400", description = "Geçersiz istek", content = @Content),
+                    @ApiResponse(responseCode = "404", description = "Arşive eklenecek dosya bulunamadı", content = @Content)
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> downloadZip(
+            @Parameter(description = "Dosya ID listesi (fileIds) veya arama terimi (search)") @RequestBody(required = false) Map<String, Object> requestBody) {
+        try {
+            Map<String, Object> body = requestBody != null ? requestBody : Map.of();
+            List<String> fileIds = new ArrayList<>();
+            if (body.get("fileIds") instanceof List) {
+                for (Object fileId : (List<?>) body.get("fileIds")) {
+                    fileIds.add(String.valueOf(fileId));
+                }
+            }
+            String search = body.get("search") instanceof String ? (String) body.get("search") : null;
+            
+            // Kimlik doğrulamadan kullanıcı ID'sini al
+            UUID userId = getCurrentUserId();
+            List<String> fileNames = zipDownloadService.findFiles(userId, fileIds, search);
+            log.info("ZIP indirme isteği kullanıcı ID: {}, dosya sayısı: {}", userId, fileNames.size());
+            if (fileNames.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
             
+            StreamingResponseBody archive = outputStream -> zipDownloadService.writeZip(userId, fileNames, outputStream);
             return ResponseEntity.ok()
-                    .headers(headers)
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(new InputStreamResource(fileStream));
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"dosyalar.zip\"")
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .body(archive);
         } catch (Exception e) {
-            log.error("Dosya indirme hatası (POST): {}", e.getMessage(), e);
+            log.error("ZIP indirme hatası: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/thumbnail/{fileName}")
+    @Operation(
+            summary = "Küçük Resim",
+            description = "PNG/JPG dosyasının küçük resmini (JPEG) döndürür. Küçük resim yüklemeden sonra arka planda " +
+                    "oluşturulur; henüz hazır değilse 404 döner ve oluşturma kuyruğa alınır",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Küçük resim"),
+                    @ApiResponse(responseCode = "304", description = "Küçük resim değişmedi", content = @Content),
+                    @ApiResponse(responseCode = "404", description = "Dosya bulunamadı veya küçük resim henüz hazır değil", content = @Content)
+            }
+    )
+    public ResponseEntity<InputStreamResource> getThumbnail(
+            @Parameter(description = "Dosyanın ID'si veya adı") @PathVariable String fileName,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders,
+            HttpServletRequest request) {
+        try {
+            // Kimlik doğrulamadan kullanıcı ID'sini al
+            UUID userId = getCurrentUserId();
+            Optional<FileContent> thumbnail = derivationService.find(userId, fileName, ThumbnailDeriver.KIND);
+            if (thumbnail.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return toDerivedResponse(thumbnail.get(), requestHeaders, request);
+        } catch (Exception e) {
+            log.error("Küçük resim hatası: {}", e.getMessage(), e);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/preview/{fileName}")
+    @Operation(
+            summary = "PDF Önizleme",
+            description = "PDF dosyasının ilk sayfasının düşük çözünürlüklü önizlemesini (JPEG) döndürür. Önizleme " +
+                    "yüklemeden sonra arka planda oluşturulur; henüz hazır değilse 404 döner ve oluşturma kuyruğa alınır",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Önizleme"),
+                    @ApiResponse(responseCode = "304", description = "Önizleme değişmedi", content = @Content),
+                    @ApiResponse(responseCode = "404", description = "Dosya bulunamadı veya önizleme henüz hazır değil", content = @Content)
+            }
+    )
+    public ResponseEntity<InputStreamResource> getPreview(
+            @Parameter(description = "Dosyanın ID'si veya adı") @PathVariable String fileName,
+            @Parameter(hidden = true) @RequestHeader HttpHeaders requestHeaders,
+            HttpServletRequest request) {
+        try {
+            // Kimlik doğrulamadan kullanıcı ID'sini al
+            UUID userId = getCurrentUserId();
+            Optional<FileContent> preview = derivationService.find(userId, fileName, PdfPreviewDeriver.KIND);
+            if (preview.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return toDerivedResponse(preview.get(), requestHeaders, request);
+        } catch (Exception e) {
+            log.error("PDF önizleme hatası: {}", e.getMessage(), e);
             return ResponseEntity.notFound().build();
         }
     }
@@ -301,14 +1275,14 @@ public class FileController {
             }
     )
     public ResponseEntity<Map<String, Object>> deleteFile(
-            @Parameter(description = "Silinecek dosya adı") @PathVariable String fileName) {
+            @Parameter(description = "Silinecek dosyanın ID'si veya adı") @PathVariable String fileName) {
         try {
             // Kimlik doğrulamadan kullanıcı ID'sini al
             UUID userId = getCurrentUserId();
             log.info("Dosya silme isteği kullanıcı ID: {}, dosya adı: {}", userId, fileName);
             
             if (minioEnabled && "minio".equals(storageType)) {
-                minioStorageService.deleteFile(fileName);
+                minioStorageService.deleteFile(userId, fileName);
             } else {
                 fileStorageService.deleteFile(userId, fileName);
             }
@@ -352,7 +1326,7 @@ public class FileController {
             log.info("Dosya silme isteği (PUT) kullanıcı ID: {}, dosya adı: {}", userId, fileName);
             
             if (minioEnabled && "minio".equals(storageType)) {
-                minioStorageService.deleteFile(fileName);
+                minioStorageService.deleteFile(userId, fileName);
             } else {
                 fileStorageService.deleteFile(userId, fileName);
             }
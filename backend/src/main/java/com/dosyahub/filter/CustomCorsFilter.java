@@ -22,8 +22,9 @@ public class CustomCorsFilter extends OncePerRequestFilter {
         // Her zaman CORS başlıklarını ekler, bu kritik önemlidir!
         response.setHeader("Access-Control-Allow-Origin", "http://localhost:3000");
         response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD, PATCH");
-        response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept, Authorization");
-        response.setHeader("Access-Control-Expose-Headers", "Content-Disposition, Content-Type, Content-Length, Authorization");
+        response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept, Authorization, "
+                + "Range, If-Range, If-None-Match, If-Modified-Since");
+        response.setHeader("Access-Control-Expose-Headers", "Content-Disposition, Content-Type, Content-Length, Authorization, Accept-Ranges, Content-Range, ETag");
         response.setHeader("Access-Control-Max-Age", "3600");
         response.setHeader("Access-Control-Allow-Credentials", "true");
         
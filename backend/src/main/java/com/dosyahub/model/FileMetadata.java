@@ -5,20 +5,23 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.GenericGenerator;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "file_metadata")
+@Table(name = "file_metadata", indexes = {
+        // İmleç ile sayfalama (user_id, sıralama değeri, id) ikililerinden aralık taraması yapar
+        @Index(name = "idx_file_metadata_user_uploaded_at", columnList = "user_id, uploaded_at, id"),
+        @Index(name = "idx_file_metadata_user_size", columnList = "user_id, size, id"),
+        // İndirme ve silmede nesne adından kayda tek indeks aramasıyla ulaşılır
+        @Index(name = "idx_file_metadata_stored_filename", columnList = "stored_filename", unique = true)
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
 public class FileMetadata {
     
     @Id
@@ -50,7 +53,32 @@ public class FileMetadata {
     @Column(name = "bucket_name", nullable = false)
     private String bucketName;
     
-    @CreatedDate
+    /**
+     * İçeriğin SHA-256 özeti; dolu ise dosya içeriği paylaşılan {@link StoredBlob} nesnesinde saklanır.
+     * Eski kayıtlarda ve tekilleştirilmeyen yüklemelerde null'dır (içerik stored_filename konumundadır).
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    /**
+     * İçeriğin depodaki kodlaması (ör. "deflate"); null ise içerik olduğu gibi saklanır.
+     * size her zaman çözülmüş içeriğin boyutudur, depoda kaplanan boyut storedSize'dadır.
+     */
+    @Column(name = "storage_codec", length = 20)
+    private String storageCodec;
+    
+    /** Kodlanmış içeriğin depodaki boyutu; kodlanmamış içerikte null */
+    @Column(name = "stored_size")
+    private Long storedSize;
+    
+    /** Dosya sistemi indeksindeki kayıtla aynı an olsun diye yükleme sırasında verilebilir; verilmezse kayıt anı */
     @Column(name = "uploaded_at", nullable = false, updatable = false)
     private LocalDateTime uploadedAt;
+    
+    @PrePersist
+    void onCreate() {
+        if (uploadedAt == null) {
+            uploadedAt = LocalDateTime.now();
+        }
+    }
 } 
\ No newline at end of file
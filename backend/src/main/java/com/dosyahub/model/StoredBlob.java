@@ -0,0 +1,61 @@
+package com.dosyahub.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * İçerik özetine (SHA-256) göre bir kez saklanan dosya içeriği.
+ * Aynı içeriğe sahip her {@link FileMetadata} kaydı bu nesneyi paylaşır; refCount sıfıra inince içerik silinir.
+ */
+@Entity
+@Table(name = "stored_blobs", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stored_blobs_bucket_hash", columnNames = {"bucket_name", "content_hash"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class StoredBlob {
+    
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+    
+    /** Depolama alanı: MinIO bucket adı veya "filesystem" */
+    @Column(name = "bucket_name", nullable = false, length = 100)
+    private String bucketName;
+    
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+    
+    @Column(name = "size", nullable = false)
+    private Long size;
+    
+    /** İçeriğin depodaki kodlaması (ör. "deflate"); null ise içerik olduğu gibi saklanır */
+    @Column(name = "storage_codec", length = 20)
+    private String storageCodec;
+    
+    /** Kodlanmış içeriğin depodaki boyutu; kodlanmamış içerikte null */
+    @Column(name = "stored_size")
+    private Long storedSize;
+    
+    /** İçeriği kullanan dosya kaydı sayısı */
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+    
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
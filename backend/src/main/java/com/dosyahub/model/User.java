@@ -1,5 +1,6 @@
 package com.dosyahub.model;
 
+import com.dosyahub.security.PrincipalCacheInvalidator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,7 +23,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PrincipalCacheInvalidator.class})
 public class User {
     
     @Id
@@ -0,0 +1,24 @@
+package com.dosyahub.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Toplu yüklemede tek bir dosyanın sonucu
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUploadResult {
+    private String originalName;
+    /** Saklanan dosya adı (başarısız yüklemelerde null) */
+    private String fileName;
+    private Long fileSize;
+    private String contentType;
+    /** success veya error */
+    private String status;
+    private String error;
+}
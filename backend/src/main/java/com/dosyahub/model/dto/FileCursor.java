@@ -0,0 +1,133 @@
+package com.dosyahub.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Anahtar kümesi (keyset) sayfalaması için opak imleç.
+ * Son görülen kaydın (sıralama değeri, id) ikilisini ve sıralama yönünü taşır.
+ */
+@Getter
+@AllArgsConstructor
+public class FileCursor {
+
+    public static final String UPLOAD_DATE = "uploadDate";
+    public static final String SIZE = "size";
+
+    private static final String SEPARATOR = "|";
+
+    /** Sıralama alanı: uploadDate veya size */
+    private final String sortKey;
+
+    private final boolean ascending;
+
+    /** Son kaydın sıralama değeri (uploadDate için epoch nanosaniye, size için bayt) */
+    private final long value;
+
+    /** Son kaydın eşsiz anahtarı (veritabanında dosya id'si, dosya sisteminde dosya adı) */
+    private final String lastId;
+
+    /**
+     * Sıralamanın imleç ile sayfalanıp sayfalanamayacağını kontrol et
+     * @param sort Sıralama kriterleri
+     * @return Tek kriterli uploadDate veya size sıralaması ise true
+     */
+    public static boolean supports(Sort sort) {
+        if (sort.isUnsorted()) {
+            return true;
+        }
+        return sort.stream().count() == 1 && normalizeSortKey(sort.iterator().next().getProperty()) != null;
+    }
+
+    /**
+     * Sayfanın son kaydından bir sonraki sayfanın imlecini oluştur
+     * @param sort Sayfanın sıralama kriterleri ({@link #supports(Sort)} true olmalı)
+     * @param uploadedAt Son kaydın yükleme zamanı (epoch nanosaniye)
+     * @param size Son kaydın boyutu
+     * @param lastId Son kaydın eşsiz anahtarı
+     * @return İmleç
+     */
+    public static FileCursor after(Sort sort, long uploadedAt, long size, String lastId) {
+        if (sort.isUnsorted()) {
+            // Varsayılan sıralama yükleme tarihine göre azalan
+            return new FileCursor(UPLOAD_DATE, false, uploadedAt, lastId);
+        }
+        Sort.Order order = sort.iterator().next();
+        String sortKey = normalizeSortKey(order.getProperty());
+        return new FileCursor(sortKey, order.isAscending(), SIZE.equals(sortKey) ? size : uploadedAt, lastId);
+    }
+
+    /**
+     * Aynı sıralama ile bir sonraki sayfanın imlecini oluştur
+     * @param uploadedAt Son kaydın yükleme zamanı (epoch nanosaniye)
+     * @param size Son kaydın boyutu
+     * @param lastId Son kaydın eşsiz anahtarı
+     * @return İmleç
+     */
+    public FileCursor next(long uploadedAt, long size, String lastId) {
+        return new FileCursor(sortKey, ascending, SIZE.equals(sortKey) ? size : uploadedAt, lastId);
+    }
+
+    public boolean isSortedBySize() {
+        return SIZE.equals(sortKey);
+    }
+
+    /**
+     * İmleci URL güvenli opak metne dönüştür
+     * @return Kodlanmış imleç
+     */
+    public String encode() {
+        String raw = sortKey + SEPARATOR + (ascending ? "asc" : "desc") + SEPARATOR + value + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opak imleç metnini çözümle
+     * @param token Kodlanmış imleç
+     * @return İmleç
+     * @throws IllegalArgumentException İmleç geçersizse
+     */
+    public static FileCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            String sortKey = normalizeSortKey(parts[0]);
+            if (parts.length != 4 || sortKey == null || parts[3].isEmpty()) {
+                throw new IllegalArgumentException("Geçersiz imleç");
+            }
+            return new FileCursor(sortKey, "asc".equals(parts[1]), Long.parseLong(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Geçersiz imleç", e);
+        }
+    }
+
+    public static long toEpochNanos(LocalDateTime dateTime) {
+        return toEpochNanos(dateTime.toInstant(ZoneOffset.UTC));
+    }
+
+    public static long toEpochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static String normalizeSortKey(String property) {
+        if (UPLOAD_DATE.equals(property) || "uploadedAt".equals(property)) {
+            return UPLOAD_DATE;
+        }
+        if (SIZE.equals(property)) {
+            return SIZE;
+        }
+        return null;
+    }
+}
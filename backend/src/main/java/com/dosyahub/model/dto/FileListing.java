@@ -0,0 +1,24 @@
+package com.dosyahub.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dosya listeleme sonucu: sayfadaki dosyalar, toplam kayıt sayısı ve bir sonraki sayfanın imleci
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileListing {
+    private List<Map<String, Object>> files;
+    /** İmleç ile sayfalamada hesaplanmaz (null) */
+    private Long totalCount;
+    /** Sonraki sayfa yoksa veya sıralama imleci desteklemiyorsa null */
+    private String nextCursor;
+}
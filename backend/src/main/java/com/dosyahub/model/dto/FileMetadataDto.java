@@ -16,6 +16,7 @@ import java.util.UUID;
 public class FileMetadataDto {
     private UUID id;
     private String originalFilename;
+    private String storedFilename;
     private String contentType;
     private Long size;
     private FileType fileType;
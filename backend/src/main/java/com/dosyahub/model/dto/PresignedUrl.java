@@ -0,0 +1,24 @@
+package com.dosyahub.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * İstemcinin dosyayı uygulama sunucusu üzerinden geçirmeden doğrudan MinIO'ya yükleyip indirebileceği imzalı adres
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUrl {
+    /** MinIO'daki nesne adı (userId/UUID_dosyaAdı) */
+    private String objectName;
+    private String url;
+    /** HTTP yöntemi: PUT (yükleme) veya GET (indirme) */
+    private String method;
+    private Instant expiresAt;
+}
@@ -7,12 +7,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface FileMetadataRepository extends JpaRepository<FileMetadata, UUID> {
+public interface FileMetadataRepository extends JpaRepository<FileMetadata, UUID>, FileMetadataRepositoryCustom {
     
     /**
      * Kullanıcıya ait dosyaları bulma
@@ -61,9 +62,17 @@ public interface FileMetadataRepository extends JpaRepository<FileMetadata, UUID
     Optional<FileMetadata> findByStoredFilename(String storedFilename);
     
     /**
-     * Dosya sistemindeki adının bir kısmını içeren dosyaları bulma
-     * @param storedFilename Saklanan dosya adının bir kısmı
-     * @return Bulunan dosyalar
+     * Kullanıcıya ait dosyaların yükleme zamanlarını bulma (dosya indeksi yeniden oluşturulurken kullanılır)
+     * @param userId Kullanıcı ID
+     * @return Saklanan dosya adı ve yükleme zamanı ikilileri
+     */
+    List<UploadTime> findUploadTimesByUserId(UUID userId);
+    
+    /**
+     * Saklanan dosya adı ve yükleme zamanı izdüşümü
      */
-    List<FileMetadata> findByStoredFilenameContaining(String storedFilename);
+    interface UploadTime {
+        String getStoredFilename();
+        LocalDateTime getUploadedAt();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.dosyahub.repository;
+
+import com.dosyahub.model.dto.FileCursor;
+import com.dosyahub.model.dto.FileMetadataDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Spring Data türetilmiş sorgularıyla ifade edilemeyen dosya metadata sorguları
+ */
+public interface FileMetadataRepositoryCustom {
+
+    /**
+     * Kullanıcının dosyalarını veritabanı tarafında filtreleyip sıralayarak listeleme.
+     * Sayfa içeriği indeks üzerinden LIMIT ile okunur; toplam kayıt sayısı sadece gerektiğinde ayrı bir sayım sorgusuyla bulunur.
+     * @param userId Kullanıcı ID
+     * @param pageable Sayfalama ve sıralama (uploadDate, size, filename, originalName, contentType)
+     * @param search Dosya adında aranacak metin (opsiyonel)
+     * @return Dosya sayfası
+     */
+    Page<FileMetadataDto> findListing(UUID userId, Pageable pageable, String search);
+
+    /**
+     * Kullanıcının dosyalarını imleçten sonra gelen kayıtlardan başlayarak listeleme (keyset sayfalama).
+     * OFFSET kullanılmadığı için derin sayfalar ilk sayfa kadar ucuzdur.
+     * @param userId Kullanıcı ID
+     * @param cursor Son görülen kaydın imleci
+     * @param search Dosya adında aranacak metin (opsiyonel)
+     * @param limit Getirilecek en fazla kayıt sayısı
+     * @return İmleçten sonraki dosyalar
+     */
+    List<FileMetadataDto> findListingAfter(UUID userId, FileCursor cursor, String search, int limit);
+}
@@ -0,0 +1,146 @@
+package com.dosyahub.repository;
+
+import com.dosyahub.model.FileType;
+import com.dosyahub.model.dto.FileCursor;
+import com.dosyahub.model.dto.FileMetadataDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class FileMetadataRepositoryImpl implements FileMetadataRepositoryCustom {
+
+    // API'deki sıralama alanlarının tablo kolonlarına karşılığı (ORDER BY'a sadece buradaki değerler girer)
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "uploadDate", "f.uploaded_at",
+            "uploadedAt", "f.uploaded_at",
+            "size", "f.size",
+            "filename", "f.original_filename",
+            "originalName", "f.original_filename",
+            "contentType", "f.content_type"
+    );
+
+    private static final String LISTING_COLUMNS =
+            "CAST(f.id AS VARCHAR) AS id, f.original_filename, f.stored_filename, f.content_type, " +
+            "CAST(f.file_type AS VARCHAR) AS file_type, f.size, f.uploaded_at";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<FileMetadataDto> findListing(UUID userId, Pageable pageable, String search) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        String where = buildWhereClause(params, search);
+
+        // Sayfa, (user_id, <kolon>, id) indeksi üzerinde ORDER BY ... LIMIT ile okunur; toplam sayı ayrı sorgudadır.
+        // COUNT(*) OVER() kullanılmaz: LIMIT'ten önce kullanıcının tüm satırlarını ürettirip sayfa süresini hesap boyutuna bağlar
+        String sql = "SELECT " + LISTING_COLUMNS + " FROM file_metadata f " + where + " " +
+                buildOrderByClause(pageable.getSort()) +
+                " LIMIT :limit OFFSET :offset";
+        params.addValue("limit", pageable.getPageSize());
+        params.addValue("offset", pageable.getOffset());
+
+        List<FileMetadataDto> rows = jdbcTemplate.query(sql, params, (rs, rowNum) -> mapRow(rs, userId));
+
+        // Son sayfada toplam sayı satırlardan bilinir; sayım sorgusu sadece gerektiğinde (user_id indeksi ile) çalışır
+        return PageableExecutionUtils.getPage(rows, pageable, () -> {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM file_metadata f " + where, params, Long.class);
+            return count != null ? count : 0;
+        });
+    }
+
+    @Override
+    public List<FileMetadataDto> findListingAfter(UUID userId, FileCursor cursor, String search, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        String column = cursor.isSortedBySize() ? "f.size" : "f.uploaded_at";
+        String direction = cursor.isAscending() ? "ASC" : "DESC";
+
+        // (değer, id) satır karşılaştırması (user_id, <kolon>, id) indeksinde doğrudan aralık taramasına dönüşür
+        String sql = "SELECT " + LISTING_COLUMNS + " FROM file_metadata f " +
+                buildWhereClause(params, search) +
+                " AND (" + column + ", f.id) " + (cursor.isAscending() ? ">" : "<") + " (:lastValue, :lastId)" +
+                " ORDER BY " + column + " " + direction + ", f.id " + direction +
+                " LIMIT :limit";
+        params.addValue("lastValue", cursor.isSortedBySize()
+                ? (Object) cursor.getValue()
+                : FileCursor.toLocalDateTime(cursor.getValue()));
+        params.addValue("lastId", UUID.fromString(cursor.getLastId()));
+        params.addValue("limit", limit);
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> mapRow(rs, userId));
+    }
+
+    /**
+     * Kullanıcı ve arama filtresini içeren WHERE ifadesini oluştur
+     * @param params Sorgu parametreleri
+     * @param search Arama metni
+     * @return WHERE ifadesi
+     */
+    private String buildWhereClause(MapSqlParameterSource params, String search) {
+        StringBuilder where = new StringBuilder("WHERE f.user_id = :userId");
+        if (search != null && !search.isBlank()) {
+            // PostgreSQL'de idx_file_metadata_filename_trgm (pg_trgm GIN) indeksi ile çözülür
+            where.append(" AND f.original_filename ILIKE :pattern ESCAPE '\\'");
+            params.addValue("pattern", "%" + escapeLikePattern(search.trim()) + "%");
+        }
+        return where.toString();
+    }
+
+    /**
+     * Sıralama kriterlerinden ORDER BY ifadesini oluştur. Sıranın kararlı olması için id her zaman son kriterdir.
+     * @param sort Sıralama kriterleri
+     * @return ORDER BY ifadesi
+     */
+    private String buildOrderByClause(Sort sort) {
+        List<String> orders = new ArrayList<>();
+        String lastDirection = "DESC";
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column != null) {
+                lastDirection = order.isAscending() ? "ASC" : "DESC";
+                orders.add(column + " " + lastDirection);
+            }
+        }
+        if (orders.isEmpty()) {
+            // Varsayılan olarak yükleme tarihine göre azalan sıralama
+            orders.add("f.uploaded_at DESC");
+        }
+        orders.add("f.id " + lastDirection);
+        return "ORDER BY " + String.join(", ", orders);
+    }
+
+    private FileMetadataDto mapRow(ResultSet rs, UUID userId) throws SQLException {
+        Timestamp uploadedAt = rs.getTimestamp("uploaded_at");
+        String fileType = rs.getString("file_type");
+        return FileMetadataDto.builder()
+                .id(UUID.fromString(rs.getString("id")))
+                .originalFilename(rs.getString("original_filename"))
+                .storedFilename(rs.getString("stored_filename"))
+                .contentType(rs.getString("content_type"))
+                .fileType(fileType != null ? FileType.valueOf(fileType) : null)
+                .size(rs.getLong("size"))
+                .uploadedAt(uploadedAt != null ? uploadedAt.toLocalDateTime() : null)
+                .userId(userId)
+                .build();
+    }
+
+    /**
+     * LIKE desenindeki özel karakterleri kaçışla
+     * @param value Ham arama metni
+     * @return Kaçışlanmış metin
+     */
+    private String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,23 @@
+package com.dosyahub.repository;
+
+import com.dosyahub.model.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, UUID> {
+    
+    /**
+     * İçerik kaydını satır kilidi alarak bulma (referans sayısı güncellemeleri sıralı yapılır)
+     * @param bucketName Depolama alanı
+     * @param contentHash İçerik özeti
+     * @return İçerik kaydı (varsa)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<StoredBlob> findByBucketNameAndContentHash(String bucketName, String contentHash);
+}
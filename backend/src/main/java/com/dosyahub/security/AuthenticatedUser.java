@@ -0,0 +1,35 @@
+package com.dosyahub.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Kimliği doğrulanmış kullanıcı. Kullanıcı ID'sini ve adını da taşır; istek işlenirken veya giriş yanıtı
+ * hazırlanırken kullanıcı tekrar veritabanından okunmaz.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final UUID id;
+    private final String firstName;
+    private final String lastName;
+
+    public AuthenticatedUser(UUID id, String username, String password, String firstName, String lastName,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    /**
+     * @return Parola özeti silinmiş kopya (önbellekte tutmak için)
+     */
+    public AuthenticatedUser withoutPassword() {
+        return new AuthenticatedUser(id, getUsername(), "", firstName, lastName, getAuthorities());
+    }
+}
@@ -24,6 +24,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,12 +33,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt)) {
-                String username = tokenProvider.extractUsername(jwt);
+                // Token tek seferde ayrıştırılıp doğrulanır (imza ve süre)
+                VerifiedToken token = tokenProvider.verify(jwt).orElse(null);
+                String username = token != null ? token.getSubject() : null;
 
                 if (StringUtils.hasText(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    // Kullanıcı bilgisi önbellekten gelir; her istekte users tablosuna gidilmez
+                    UserDetails userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
                     
-                    if (tokenProvider.validateToken(jwt, userDetails)) {
+                    if (username.equals(userDetails.getUsername()) && matchesUserId(token, userDetails)) {
                         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -54,6 +58,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Token kullanıcı ID'si taşıyorsa, aynı e-postayla sonradan açılmış başka bir hesaba ait olmadığını kontrol et
+     */
+    private boolean matchesUserId(VerifiedToken token, UserDetails userDetails) {
+        if (token.getUserId() == null || !(userDetails instanceof AuthenticatedUser authenticatedUser)) {
+            return true;
+        }
+        return token.getUserId().equals(authenticatedUser.getId());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,27 +1,43 @@
 package com.dosyahub.security;
 
-import io.jsonwebtoken.Claims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtTokenProvider {
 
+    private static final String CACHE_NAME = "verifiedTokens";
+
+    // Kullanıcı ID'sini taşıyan claim
+    public static final String USER_ID_CLAIM = "uid";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -31,17 +47,56 @@ public class JwtTokenProvider {
     @Value("${jwt.issuer}")
     private String jwtIssuer;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
     private SecretKey secretKey;
 
+    // Ayrıştırıcı iş parçacığı güvenlidir; her doğrulamada yeniden oluşturulmaz
+    private JwtParser jwtParser;
+
+    // Anahtar: token imzası. Sık istek atan istemcilerin token'ı süresi dolana kadar tekrar ayrıştırılıp HMAC ile doğrulanmaz
+    private Cache<String, CachedToken> verifiedTokens;
+
     @PostConstruct
     public void init() {
         secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, CachedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+                        Instant expiration = value.verified.getExpiration();
+                        return expiration != null
+                                ? Math.max(0, Duration.between(Instant.now(), expiration).toNanos())
+                                : Duration.ofMillis(jwtExpirationMs).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
         log.info("JWT provider initialized with secret key");
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", userDetails.getAuthorities());
+        if (userDetails instanceof AuthenticatedUser authenticatedUser) {
+            claims.put(USER_ID_CLAIM, authenticatedUser.getId().toString());
+        }
         
         return Jwts.builder()
                 .setClaims(claims)
@@ -53,33 +108,41 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    /**
+     * Token'ı tek seferde ayrıştır, imzasını ve süresini doğrula. Yakın zamanda doğrulanan token'lar önbellekten döner.
+     * @param token JWT
+     * @return Doğrulanmış token; imza geçersizse, süresi dolduysa veya token bozuksa boş
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        int signatureStart = token.lastIndexOf('.');
+        if (signatureStart < 0) {
+            return Optional.empty();
+        }
+        String signature = token.substring(signatureStart + 1);
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+        // Aynı imza farklı başlık/gövdeyle gelirse önbellek kullanılmaz, token baştan doğrulanır
+        CachedToken cached = verifiedTokens.getIfPresent(signature);
+        if (cached != null && cached.token.equals(token) && !cached.verified.isExpired(Instant.now())) {
+            return Optional.of(cached.verified);
+        }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        try {
+            VerifiedToken verified = new VerifiedToken(jwtParser.parseClaimsJws(token).getBody());
+            verifiedTokens.put(signature, new CachedToken(token, verified));
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
+    private static final class CachedToken {
+        private final String token;
+        private final VerifiedToken verified;
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        private CachedToken(String token, VerifiedToken verified) {
+            this.token = token;
+            this.verified = verified;
+        }
     }
-} 
\ No newline at end of file
+}
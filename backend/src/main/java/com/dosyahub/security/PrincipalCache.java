@@ -0,0 +1,76 @@
+package com.dosyahub.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * JWT ile kimliği doğrulanan isteklerde kullanıcı bilgisinin (UserDetails) önbelleği.
+ * Her API isteğinde users tablosuna gidilmez; kayıt TTL sonunda veya kullanıcı kaydı değiştiğinde/silindiğinde
+ * ({@link PrincipalCacheInvalidator}) düşer. Girişte parola kontrolü bu önbelleği kullanmaz, her zaman veritabanından yapılır.
+ * İsabet oranı ve tahliyeler "cache.*{cache=principals}" olarak yayınlanır.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private static final String CACHE_NAME = "principals";
+
+    private final boolean enabled;
+    // Anahtar: token'daki kullanıcı adı (e-posta)
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(@Value("${security.principal-cache.enabled:true}") boolean enabled,
+                          @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:5m}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // Başka düğümlerdeki değişiklikler en fazla bu süre kadar görünmez kalır
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Kullanıcı bilgisini önbellekten getir, yoksa yükleyip sakla
+     * @param username Kullanıcı adı (e-posta)
+     * @param loader Önbellekte yoksa kullanıcıyı veritabanından yükleyen fonksiyon
+     * @return Kullanıcı bilgisi
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        // Parola özeti önbellekte tutulmaz; token doğrulaması için gerekmez
+        return cache.get(username, key -> {
+            UserDetails loaded = loader.apply(key);
+            return loaded instanceof AuthenticatedUser authenticatedUser
+                    ? authenticatedUser.withoutPassword()
+                    : User.withUserDetails(loaded).password("").build();
+        });
+    }
+
+    /**
+     * Kullanıcının önbellekteki bilgisini geçersiz kıl
+     * @param username Kullanıcı adı (e-posta)
+     */
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+            log.debug("Kullanıcı önbellekten çıkarıldı: {}", username);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.dosyahub.security;
+
+import com.dosyahub.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Kullanıcı kaydı güncellendiğinde (parola, hesap bilgileri) veya silindiğinde {@link PrincipalCache} kaydını düşürür.
+ * JPA varlık dinleyicisidir; JPQL toplu güncellemeleri (UPDATE ... WHERE) dinleyiciyi tetiklemez, bu tür
+ * değişikliklerden sonra {@link PrincipalCache#invalidate(String)} ayrıca çağrılmalıdır.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCacheInvalidator {
+
+    private final PrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        principalCache.invalidate(user.getEmail());
+    }
+}
@@ -0,0 +1,52 @@
+package com.dosyahub.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * İmzası ve süresi doğrulanmış JWT'nin değişmez görünümü.
+ * Doğrulanmış token önbelleğinde iş parçacıkları arasında paylaşıldığı için değiştirilemez.
+ */
+@Getter
+public final class VerifiedToken {
+
+    private final String subject;
+    private final Instant issuedAt;
+    private final Instant expiration;
+    // Kullanıcı ID'si claim'i olmayan (eski) token'larda null
+    private final UUID userId;
+    private final Map<String, Object> claims;
+
+    VerifiedToken(Claims claims) {
+        this.subject = claims.getSubject();
+        this.issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        this.expiration = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+        this.userId = parseUserId(claims.get(JwtTokenProvider.USER_ID_CLAIM));
+        this.claims = Collections.unmodifiableMap(new HashMap<>(claims));
+    }
+
+    private static UUID parseUserId(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param now Şu an
+     * @return Token'ın süresi dolduysa true
+     */
+    public boolean isExpired(Instant now) {
+        return expiration != null && !expiration.isAfter(now);
+    }
+}
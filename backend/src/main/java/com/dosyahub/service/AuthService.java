@@ -6,17 +6,16 @@ import com.dosyahub.dto.RegisterRequest;
 import com.dosyahub.dto.UserDto;
 import com.dosyahub.model.User;
 import com.dosyahub.repository.UserRepository;
+import com.dosyahub.security.AuthenticatedUser;
 import com.dosyahub.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 
@@ -29,53 +28,69 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * Kullanıcı girişi. Yanıt yolunda veritabanına yazılmaz; son giriş zamanı {@link LastLoginRecorder} ile
+     * toplu olarak yazılır. Parola yeniden özetlenecekse bu kendi işleminde yapılır.
+     * @param request Giriş bilgileri
+     * @return Token ve kullanıcı bilgileri
+     */
     public AuthResponse login(AuthRequest request) {
         log.info("Kullanıcı giriş denemesi: {}", request.getEmail());
         
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
         
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String jwt = tokenProvider.generateToken(userDetails);
+        // Kullanıcı kimlik doğrulamada zaten yüklendi; yanıt için tekrar okunmaz
+        if (!(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new IllegalStateException("Beklenmeyen kullanıcı bilgisi: " + authentication.getPrincipal().getClass());
+        }
+        String jwt = tokenProvider.generateToken(user);
         
-        // Son giriş zamanını güncelle
-        User user = userRepository.findByEmail(request.getEmail()).get();
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        // Son giriş zamanı tamponlanır, periyodik olarak toplu yazılır
+        lastLoginRecorder.record(user.getId(), LocalDateTime.now());
         
         log.info("Kullanıcı başarıyla giriş yaptı: {}", request.getEmail());
         
         return AuthResponse.builder()
                 .token(jwt)
                 .userId(user.getId())
-                .email(user.getEmail())
+                .email(user.getUsername())
                 .firstName(user.getFirstName())
                 .lastName(user.getLastName())
                 .build();
     }
 
-    @Transactional
+    /**
+     * Yeni kullanıcı kaydı. Parola, veritabanı işlemi açılmadan önce özetlenir; BCrypt süresince bağlantı havuzundan
+     * bağlantı tutulmaz. İşlem sadece e-posta kontrolünü ve kaydı kapsar.
+     * @param request Kayıt bilgileri
+     * @return Kaydedilen kullanıcı
+     */
     public UserDto register(RegisterRequest request) {
         log.info("Yeni kullanıcı kaydı: {}", request.getEmail());
         
+        // Kullanılan e-posta için parola boşuna özetlenmez
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Bu e-posta adresi zaten kullanılıyor");
         }
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
         
-        User user = User.builder()
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .firstName(request.getFirstName())
-                .lastName(request.getLastName())
-                .createdAt(LocalDateTime.now())
-                .updatedAt(LocalDateTime.now())
-                .build();
-        
-        User savedUser = userRepository.save(user);
+        User savedUser = transactionTemplate.execute(status -> {
+            if (userRepository.existsByEmail(request.getEmail())) {
+                throw new RuntimeException("Bu e-posta adresi zaten kullanılıyor");
+            }
+            return userRepository.save(User.builder()
+                    .email(request.getEmail())
+                    .password(encodedPassword)
+                    .firstName(request.getFirstName())
+                    .lastName(request.getLastName())
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        });
         log.info("Kullanıcı başarıyla kaydedildi: {}", savedUser.getEmail());
         
         return UserDto.builder()
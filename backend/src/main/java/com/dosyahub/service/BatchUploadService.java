@@ -0,0 +1,130 @@
+package com.dosyahub.service;
+
+import com.dosyahub.model.FileMetadata;
+import com.dosyahub.model.User;
+import com.dosyahub.model.dto.BatchUploadResult;
+import com.dosyahub.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+
+/**
+ * Tek istekte gelen birden çok dosyanın yüklenmesi.
+ * Dosya içerikleri sınırlı bir havuzda eşzamanlı olarak depolamaya yazılır, ardından başarılı dosyaların
+ * metadata kayıtları tek bir JDBC toplu işleminde (hibernate.jdbc.batch_size) veritabanına eklenir.
+ */
+@Service
+@Slf4j
+public class BatchUploadService {
+
+    private final FileStorageService fileStorageService;
+    private final ObjectProvider<MinioStorageService> minioStorageService;
+    private final UserRepository userRepository;
+    private final AsyncTaskExecutor uploadExecutor;
+
+    @Value("${storage.type}")
+    private String storageType;
+
+    @Value("${minio.enabled}")
+    private boolean minioEnabled;
+
+    public BatchUploadService(FileStorageService fileStorageService,
+                              ObjectProvider<MinioStorageService> minioStorageService,
+                              UserRepository userRepository,
+                              @Qualifier("uploadExecutor") AsyncTaskExecutor uploadExecutor) {
+        this.fileStorageService = fileStorageService;
+        this.minioStorageService = minioStorageService;
+        this.userRepository = userRepository;
+        this.uploadExecutor = uploadExecutor;
+    }
+
+    /**
+     * Dosyaları yükle. Bir dosyanın başarısız olması diğerlerini etkilemez.
+     * @param userId Kullanıcı ID
+     * @param files Yüklenecek dosyalar
+     * @param allowedContentType Kabul edilen içerik tipleri
+     * @return İstekteki sırayla her dosyanın sonucu
+     */
+    public List<BatchUploadResult> storeFiles(UUID userId, List<MultipartFile> files, Predicate<String> allowedContentType) {
+        User user = userRepository.getReferenceById(userId);
+        boolean minio = minioEnabled && "minio".equals(storageType);
+
+        // İçerikleri eşzamanlı yaz
+        List<CompletableFuture<FileMetadata>> writes = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            if (!allowedContentType.test(file.getContentType())) {
+                writes.add(CompletableFuture.failedFuture(new IllegalArgumentException(
+                        "Desteklenmeyen dosya formatı. Sadece PDF, PNG ve JPG dosyaları yüklenebilir.")));
+                continue;
+            }
+            writes.add(CompletableFuture.supplyAsync(() -> minio
+                    ? minioStorageService.getObject().storeFileContent(user, file)
+                    : fileStorageService.storeFileContent(user, file), uploadExecutor));
+        }
+
+        BatchUploadResult[] results = new BatchUploadResult[files.size()];
+        List<FileMetadata> stored = new ArrayList<>();
+        List<Integer> storedPositions = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            try {
+                stored.add(writes.get(i).join());
+                storedPositions.add(i);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.warn("Toplu yüklemede dosya yüklenemedi: {}", file.getOriginalFilename(), cause);
+                results[i] = failure(file, cause);
+            }
+        }
+
+        // Başarılı dosyaların metadata kayıtlarını tek toplu işlemde ekle
+        if (!stored.isEmpty()) {
+            try {
+                List<FileMetadata> saved = minio
+                        ? minioStorageService.getObject().registerStoredObjects(stored)
+                        : fileStorageService.registerStoredFiles(stored);
+                for (int i = 0; i < saved.size(); i++) {
+                    FileMetadata metadata = saved.get(i);
+                    results[storedPositions.get(i)] = BatchUploadResult.builder()
+                            .originalName(metadata.getOriginalFilename())
+                            .fileName(minio ? metadata.getStoredFilename() : fileStorageService.getStoredName(metadata))
+                            .fileSize(metadata.getSize())
+                            .contentType(metadata.getContentType())
+                            .status("success")
+                            .build();
+                }
+            } catch (RuntimeException e) {
+                log.error("Toplu yüklemede metadata kaydedilemedi", e);
+                for (int position : storedPositions) {
+                    results[position] = failure(files.get(position), e);
+                }
+            }
+        }
+
+        List<BatchUploadResult> resultList = List.of(results);
+        log.info("Toplu yükleme tamamlandı: kullanıcı={}, dosya sayısı={}, başarılı={}", userId, files.size(),
+                resultList.stream().filter(result -> "success".equals(result.getStatus())).count());
+        return resultList;
+    }
+
+    private BatchUploadResult failure(MultipartFile file, Throwable cause) {
+        return BatchUploadResult.builder()
+                .originalName(file.getOriginalFilename())
+                .fileSize(file.getSize())
+                .contentType(file.getContentType())
+                .status("error")
+                .error(cause.getMessage())
+                .build();
+    }
+}
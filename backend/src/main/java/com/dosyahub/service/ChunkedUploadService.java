@@ -0,0 +1,321 @@
+package com.dosyahub.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Devam ettirilebilir, parçalı yükleme oturumlarını yönetir.
+ * İstemci oturumu açar, parçaları herhangi bir sırada (paralel olarak da) gönderir, durumu sorgulayıp
+ * eksik parçaları yeniden yükler ve son olarak yüklemeyi tamamlar. Parçalar MinIO'da ayrı nesneler olarak
+ * saklanıp composeObject ile birleştirilir; dosya sisteminde tek bir geçici dosyaya konumlu olarak yazılır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadService {
+
+    // MinIO/S3 birleştirmesinde son parça dışındaki parçaların alt sınırı
+    private static final long MIN_CHUNK_SIZE = 5L * 1024 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final ObjectProvider<MinioStorageService> minioStorageService;
+
+    private final Map<UUID, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${storage.type}")
+    private String storageType;
+
+    @Value("${minio.enabled}")
+    private boolean minioEnabled;
+
+    @Value("${storage.upload.chunk-size:8MB}")
+    private DataSize chunkSize;
+
+    @Value("${storage.upload.resumable-max-file-size:10GB}")
+    private DataSize maxFileSize;
+
+    @Value("${storage.upload.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    /**
+     * Yeni yükleme oturumu aç
+     * @param userId Kullanıcı ID
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @param size Dosyanın toplam boyutu
+     * @return Oturum
+     */
+    public UploadSession createSession(UUID userId, String originalFilename, String contentType, long size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Dosya boyutu sıfırdan büyük olmalıdır");
+        }
+        if (size > maxFileSize.toBytes()) {
+            throw new IllegalArgumentException("Dosya boyutu sınırı aşıldı: en fazla " + maxFileSize.toBytes() + " bayt");
+        }
+
+        long sessionChunkSize = Math.max(chunkSize.toBytes(), MIN_CHUNK_SIZE);
+        UploadSession session = new UploadSession(UUID.randomUUID(), userId, originalFilename, contentType,
+                size, sessionChunkSize, isMinio());
+        if (!session.isMinio()) {
+            fileStorageService.createChunkedUpload(session.getId(), size);
+        }
+        sessions.put(session.getId(), session);
+
+        log.info("Yükleme oturumu açıldı: {} (kullanıcı={}, dosya={}, parça sayısı={})",
+                session.getId(), userId, originalFilename, session.getTotalChunks());
+        return session;
+    }
+
+    /**
+     * Kullanıcıya ait açık oturumu getir
+     * @param userId Kullanıcı ID
+     * @param uploadId Oturum ID
+     * @return Oturum (yoksa veya başka kullanıcıya aitse boş)
+     */
+    public Optional<UploadSession> findSession(UUID userId, UUID uploadId) {
+        return Optional.ofNullable(sessions.get(uploadId))
+                .filter(session -> session.getUserId().equals(userId));
+    }
+
+    /**
+     * Tek bir parçayı yükle. Aynı parça tekrar gönderilirse üzerine yazılır.
+     * @param session Oturum
+     * @param index Parça sırası (0'dan başlar)
+     * @param contentLength İsteğin bildirdiği gövde uzunluğu (bilinmiyorsa -1)
+     * @param inputStream Parça içeriği
+     */
+    public void writeChunk(UploadSession session, int index, long contentLength, InputStream inputStream) {
+        if (index < 0 || index >= session.getTotalChunks()) {
+            throw new IllegalArgumentException("Geçersiz parça sırası: " + index);
+        }
+        long length = session.getChunkLength(index);
+        if (contentLength >= 0 && contentLength != length) {
+            throw new IllegalArgumentException("Parça " + index + " için " + length + " bayt bekleniyor, "
+                    + contentLength + " bayt gönderildi");
+        }
+
+        // Parça yazımları paylaşımlı kilidi tutar; tamamlama, iptal veya temizlik sürerken beklemeden reddedilir
+        if (!session.lock.readLock().tryLock()) {
+            throw new IllegalStateException("Yükleme tamamlanıyor, parça kabul edilmiyor");
+        }
+        try {
+            if (session.closed) {
+                throw new IllegalStateException("Yükleme oturumu kapatıldı, parça kabul edilmiyor");
+            }
+            if (session.isMinio()) {
+                minioStorageService.getObject().writeChunk(session.getId(), index, length, inputStream);
+            } else {
+                fileStorageService.writeChunk(session.getId(), index * session.getChunkSize(), length, inputStream);
+            }
+            session.markReceived(index);
+        } finally {
+            session.lock.readLock().unlock();
+        }
+        log.debug("Parça alındı: oturum={}, parça={}", session.getId(), index);
+    }
+
+    /**
+     * Tüm parçalar yüklendiyse dosyayı birleştirip kaydet ve oturumu kapat
+     * @param session Oturum
+     * @return Saklanan dosya adı
+     */
+    public String complete(UploadSession session) {
+        // Özel kilit, devam eden parça yazımlarının bitmesini bekler; birleştirme sırasında yeni parça yazılmaz
+        session.lock.writeLock().lock();
+        try {
+            if (session.closed) {
+                throw new IllegalStateException("Yükleme oturumu zaten kapatıldı");
+            }
+            List<Integer> missing = session.getMissingChunks();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Eksik parçalar var: " + missing);
+            }
+
+            String storedFileName;
+            if (session.isMinio()) {
+                storedFileName = minioStorageService.getObject().completeChunkedUpload(session.getUserId(),
+                        session.getId(), session.getTotalChunks(), session.getOriginalFilename(),
+                        session.getContentType(), session.getSize());
+            } else {
+                storedFileName = fileStorageService.completeChunkedUpload(session.getUserId(), session.getId(),
+                        session.getOriginalFilename(), session.getContentType());
+            }
+            // Birleştirme başarısız olursa oturum açık kalır ve parçalar korunur, istemci tekrar deneyebilir
+            session.closed = true;
+            sessions.remove(session.getId());
+            log.info("Yükleme oturumu tamamlandı: {} -> {}", session.getId(), storedFileName);
+            return storedFileName;
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Oturumu iptal et ve yüklenen parçaları sil
+     * @param session Oturum
+     */
+    public void abort(UploadSession session) {
+        session.lock.writeLock().lock();
+        try {
+            if (session.closed) {
+                return;
+            }
+            session.closed = true;
+            sessions.remove(session.getId(), session);
+            discardChunks(session);
+            log.info("Yükleme oturumu iptal edildi: {}", session.getId());
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Belirlenen süre boyunca hareketsiz kalan oturumları ve parçalarını temizle.
+     * Oturumlar sadece bellekte tutulduğundan yeniden başlatma sonrası sahipsiz kalan parçalar da aynı sürenin
+     * ardından silinir; ilk çalışma uygulama açılışındadır.
+     */
+    @Scheduled(fixedDelayString = "${storage.upload.session-cleanup-interval:PT1H}")
+    public void removeExpiredSessions() {
+        Instant threshold = Instant.now().minus(sessionTtl);
+        removeOrphanedChunks(threshold);
+        sessions.values().stream()
+                .filter(session -> session.getLastActivity().isBefore(threshold))
+                .forEach(session -> {
+                    // Kilit alınamıyorsa oturum şu an kullanılıyordur; bir sonraki temizlikte tekrar bakılır
+                    if (!session.lock.writeLock().tryLock()) {
+                        return;
+                    }
+                    try {
+                        if (!session.closed && session.getLastActivity().isBefore(threshold)) {
+                            session.closed = true;
+                            sessions.remove(session.getId(), session);
+                            discardChunks(session);
+                            log.info("Süresi dolan yükleme oturumu silindi: {}", session.getId());
+                        }
+                    } finally {
+                        session.lock.writeLock().unlock();
+                    }
+                });
+    }
+
+    private void removeOrphanedChunks(Instant threshold) {
+        Set<UUID> activeUploads = Set.copyOf(sessions.keySet());
+        int removed = fileStorageService.removeStaleChunkedUploads(threshold, activeUploads);
+        MinioStorageService minio = minioStorageService.getIfAvailable();
+        if (minio != null) {
+            removed += minio.removeStaleChunks(threshold, activeUploads);
+        }
+        if (removed > 0) {
+            log.info("Oturumu olmayan {} eski yükleme parçası silindi", removed);
+        }
+    }
+
+    private void discardChunks(UploadSession session) {
+        try {
+            if (session.isMinio()) {
+                minioStorageService.getObject().abortChunkedUpload(session.getId(), session.getTotalChunks());
+            } else {
+                fileStorageService.abortChunkedUpload(session.getId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Yükleme parçaları silinemedi: {}", session.getId(), e);
+        }
+    }
+
+    private boolean isMinio() {
+        return minioEnabled && "minio".equals(storageType);
+    }
+
+    /**
+     * Açık bir yükleme oturumunun durumu
+     */
+    @Getter
+    public static class UploadSession {
+        private final UUID id;
+        private final UUID userId;
+        private final String originalFilename;
+        private final String contentType;
+        private final long size;
+        private final long chunkSize;
+        private final int totalChunks;
+        private final Instant createdAt = Instant.now();
+        // Oturum açıldığındaki depolama türü; yapılandırma değişse bile parçalar aynı yerde birleştirilir
+        private final boolean minio;
+        private volatile Instant lastActivity = createdAt;
+
+        @Getter(AccessLevel.NONE)
+        private final BitSet received;
+        // Parça yazımları paylaşımlı, tamamlama/iptal/temizlik özel tarafı tutar
+        @Getter(AccessLevel.NONE)
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // Tamamlandı, iptal edildi veya süresi doldu; özel kilit altında değişir
+        @Getter(AccessLevel.NONE)
+        private boolean closed;
+
+        UploadSession(UUID id, UUID userId, String originalFilename, String contentType,
+                      long size, long chunkSize, boolean minio) {
+            this.id = id;
+            this.userId = userId;
+            this.originalFilename = originalFilename;
+            this.contentType = contentType;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.totalChunks = (int) ((size + chunkSize - 1) / chunkSize);
+            this.minio = minio;
+            this.received = new BitSet(totalChunks);
+        }
+
+        /**
+         * Parçanın beklenen uzunluğu (son parça daha kısa olabilir)
+         * @param index Parça sırası
+         * @return Bayt cinsinden uzunluk
+         */
+        public long getChunkLength(int index) {
+            return Math.min(chunkSize, size - index * chunkSize);
+        }
+
+        public List<Integer> getReceivedChunks() {
+            synchronized (received) {
+                return received.stream().boxed().collect(Collectors.toList());
+            }
+        }
+
+        public List<Integer> getMissingChunks() {
+            List<Integer> missing = new ArrayList<>();
+            synchronized (received) {
+                for (int i = received.nextClearBit(0); i < totalChunks; i = received.nextClearBit(i + 1)) {
+                    missing.add(i);
+                }
+            }
+            return missing;
+        }
+
+        void markReceived(int index) {
+            synchronized (received) {
+                received.set(index);
+            }
+            lastActivity = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.dosyahub.service;
+
+import com.dosyahub.model.FileMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Dosya içeriğinden türetilen bir gösterim (küçük resim, önizleme).
+ * Türetme {@link DerivationService} tarafından yüklemeden sonra arka planda çalıştırılır, sonuç
+ * {@link DerivedObjectStore} içinde saklanır.
+ */
+public interface ContentDeriver {
+
+    /**
+     * @return Türetilen içeriğin türü; depodaki adı ve API'deki karşılığı
+     */
+    String getKind();
+
+    /**
+     * @return Türetilen içeriğin tipi
+     */
+    String getContentType();
+
+    /**
+     * @param metadata Dosya kaydı
+     * @return Bu dosyadan türetme yapılabiliyorsa true
+     */
+    boolean supports(FileMetadata metadata);
+
+    /**
+     * İçerikten türetilmiş gösterimi oluştur
+     * @param content Dosya içeriği
+     * @return Türetilen içerik; dosya okunamıyorsa (bozuk, desteklenmeyen biçim) null
+     * @throws IOException Okuma hatası
+     */
+    byte[] derive(InputStream content) throws IOException;
+}
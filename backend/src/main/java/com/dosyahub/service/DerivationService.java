@@ -0,0 +1,191 @@
+package com.dosyahub.service;
+
+import com.dosyahub.model.FileMetadata;
+import com.dosyahub.repository.FileMetadataRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Yükleme sonrası türetme aşaması: yeni kaydedilen her dosya için uygun {@link ContentDeriver}'lar sınırlı bir
+ * havuzda arka planda çalıştırılır. Türetilen içerik kaynağın özetiyle saklanır; aynı içerik tekrar yüklendiğinde
+ * veya aynı iş kuyrukta zaten bekliyorsa tekrar türetilmez. Kuyruk doluysa iş atlanır, içerik ilk istendiğinde
+ * tekrar kuyruğa alınır.
+ * Süreler "dosyahub.derivation{kind,result}" olarak yayınlanır.
+ */
+@Service
+@Slf4j
+public class DerivationService {
+
+    private final List<ContentDeriver> derivers;
+    private final DerivedObjectStore derivedObjectStore;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final FileStorageService fileStorageService;
+    private final ObjectProvider<MinioStorageService> minioStorageService;
+    private final TaskExecutor derivationExecutor;
+    private final MeterRegistry meterRegistry;
+
+    // Kuyrukta bekleyen veya çalışan işler: "anahtar/tür"
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @Value("${storage.type}")
+    private String storageType;
+
+    @Value("${minio.enabled}")
+    private boolean minioEnabled;
+
+    @Value("${storage.derivation.enabled:true}")
+    private boolean enabled;
+
+    public DerivationService(List<ContentDeriver> derivers,
+                             DerivedObjectStore derivedObjectStore,
+                             FileMetadataRepository fileMetadataRepository,
+                             FileStorageService fileStorageService,
+                             ObjectProvider<MinioStorageService> minioStorageService,
+                             @Qualifier("derivationExecutor") TaskExecutor derivationExecutor,
+                             MeterRegistry meterRegistry) {
+        this.derivers = derivers;
+        this.derivedObjectStore = derivedObjectStore;
+        this.fileMetadataRepository = fileMetadataRepository;
+        this.fileStorageService = fileStorageService;
+        this.minioStorageService = minioStorageService;
+        this.derivationExecutor = derivationExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Yeni kaydedilen dosya için türetme işlerini kuyruğa al
+     * @param event Dosya kaydedildi olayı
+     */
+    @EventListener
+    public void onFileStored(FileStoredEvent event) {
+        if (!enabled) {
+            return;
+        }
+        FileMetadata metadata = event.getMetadata();
+        for (ContentDeriver deriver : derivers) {
+            if (deriver.supports(metadata)) {
+                schedule(metadata, deriver);
+            }
+        }
+    }
+
+    /**
+     * Kullanıcının dosyasından türetilen içeriği bul. Henüz türetilmediyse (eski dosyalar, atlanan işler) iş
+     * kuyruğa alınır ve boş döner.
+     * @param userId Kullanıcı ID
+     * @param fileName Dosya ID'si veya adı (userId/UUID_dosyaAdı veya UUID_dosyaAdı)
+     * @param kind Türetilen içeriğin türü
+     * @return Türetilen içerik
+     */
+    public Optional<FileContent> find(UUID userId, String fileName, String kind) throws IOException {
+        ContentDeriver deriver = derivers.stream()
+                .filter(d -> d.getKind().equals(kind))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Bilinmeyen türetme: " + kind));
+
+        Optional<FileMetadata> metadata = findMetadata(userId, fileName).filter(deriver::supports);
+        if (metadata.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<FileContent> derived = derivedObjectStore.get(
+                DerivedObjectStore.keyOf(metadata.get()), kind, deriver.getContentType());
+        if (derived.isEmpty() && enabled) {
+            schedule(metadata.get(), deriver);
+        }
+        return derived;
+    }
+
+    private Optional<FileMetadata> findMetadata(UUID userId, String fileName) {
+        try {
+            return fileMetadataRepository.findByIdAndUserId(UUID.fromString(fileName), userId);
+        } catch (IllegalArgumentException e) {
+            // Dosya ID'si değil, dosya adı; arama kullanıcının klasörüyle sınırlıdır
+            String storedName = fileName.substring(fileName.lastIndexOf('/') + 1);
+            return fileMetadataRepository.findByStoredFilename(userId + "/" + storedName);
+        }
+    }
+
+    private void schedule(FileMetadata metadata, ContentDeriver deriver) {
+        String key = DerivedObjectStore.keyOf(metadata);
+        String task = key + "/" + deriver.getKind();
+        if (!pending.add(task)) {
+            return;
+        }
+
+        UUID userId = metadata.getUser().getId();
+        String storedFilename = metadata.getStoredFilename();
+        try {
+            derivationExecutor.execute(() -> {
+                try {
+                    derive(userId, storedFilename, key, deriver);
+                } finally {
+                    pending.remove(task);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pending.remove(task);
+            meterRegistry.counter("dosyahub.derivation.rejected", "kind", deriver.getKind()).increment();
+            log.debug("Türetme kuyruğu dolu, içerik istendiğinde tekrar denenecek: {}", task);
+        }
+    }
+
+    private void derive(UUID userId, String storedFilename, String key, ContentDeriver deriver) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "success";
+        try {
+            // Aynı içerik daha önce başka bir yüklemeden türetilmiş olabilir
+            if (derivedObjectStore.get(key, deriver.getKind(), deriver.getContentType()).isPresent()) {
+                result = "exists";
+                return;
+            }
+
+            byte[] data;
+            try (InputStream content = openContent(userId, storedFilename)) {
+                data = deriver.derive(content);
+            }
+            if (data == null) {
+                result = "unsupported";
+                log.debug("Dosyadan {} türetilemedi: {}", deriver.getKind(), storedFilename);
+                return;
+            }
+            derivedObjectStore.put(key, deriver.getKind(), data, deriver.getContentType());
+            log.debug("{} oluşturuldu: {} ({} bayt)", deriver.getKind(), storedFilename, data.length);
+        } catch (Exception e) {
+            result = "error";
+            log.warn("{} oluşturulamadı: {}", deriver.getKind(), storedFilename, e);
+        } finally {
+            sample.stop(meterRegistry.timer("dosyahub.derivation", "kind", deriver.getKind(), "result", result));
+        }
+    }
+
+    /**
+     * Kaynak dosyanın içeriğini aç
+     * @param userId Kullanıcı ID
+     * @param storedFilename Metadata kaydındaki dosya adı (userId/UUID_dosyaAdı)
+     * @return İçerik akışı
+     */
+    private InputStream openContent(UUID userId, String storedFilename) throws IOException {
+        if (minioEnabled && "minio".equals(storageType)) {
+            return minioStorageService.getObject().getFileContent(userId, storedFilename).open();
+        }
+        String storedName = storedFilename.substring(storedFilename.indexOf('/') + 1);
+        return fileStorageService.getFileContent(userId, storedName).open();
+    }
+}
@@ -0,0 +1,237 @@
+package com.dosyahub.service;
+
+import com.dosyahub.model.FileMetadata;
+import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Dosyalardan türetilen içeriklerin (küçük resim, önizleme) deposu.
+ * Türetilen içerik, kaynağıyla aynı depoda saklanır: MinIO'da aynı bucket içinde "derived/anahtar/tür",
+ * dosya sisteminde yükleme dizini altında ".derived/anahtar/tür". Anahtar içerik özetidir; aynı içerik birden çok
+ * kez yüklense de türetme bir kez yapılır. Özeti olmayan dosyalarda anahtar dosya ID'sidir.
+ */
+@Component
+@Slf4j
+public class DerivedObjectStore {
+
+    private static final String MINIO_PREFIX = "derived";
+    private static final String FILESYSTEM_DIR = ".derived";
+
+    private final ObjectProvider<MinioClient> minioClient;
+
+    @Value("${storage.type}")
+    private String storageType;
+
+    @Value("${minio.enabled}")
+    private boolean minioEnabled;
+
+    @Value("${minio.bucket-name}")
+    private String bucketName;
+
+    @Value("${storage.upload-dir:uploads}")
+    private String uploadDir;
+
+    public DerivedObjectStore(ObjectProvider<MinioClient> minioClient) {
+        this.minioClient = minioClient;
+    }
+
+    /**
+     * Dosyanın türetilen içeriklerinin anahtarı
+     * @param metadata Dosya kaydı
+     * @return İçerik özeti; özeti olmayan dosyalarda dosya ID'si
+     */
+    public static String keyOf(FileMetadata metadata) {
+        return metadata.getContentHash() != null ? metadata.getContentHash() : metadata.getId().toString();
+    }
+
+    /**
+     * Türetilen içeriği sakla
+     * @param key Kaynak dosyanın anahtarı
+     * @param kind Türetilen içeriğin türü (ör. "thumbnail")
+     * @param data İçerik
+     * @param contentType İçerik tipi
+     */
+    public void put(String key, String kind, byte[] data, String contentType) throws IOException {
+        if (isMinio()) {
+            try {
+                minioClient.getObject().putObject(
+                        PutObjectArgs.builder()
+                                .bucket(bucketName)
+                                .object(getObjectName(key, kind))
+                                .stream(new ByteArrayInputStream(data), data.length, -1)
+                                .contentType(contentType)
+                                .build()
+                );
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Türetilen içerik MinIO'ya yazılamadı: " + key + "/" + kind, e);
+            }
+            return;
+        }
+
+        Path target = getPath(key, kind);
+        Files.createDirectories(target.getParent());
+        // Önce geçici dosyaya yazılır; okuyucular yarım içerik görmez
+        Path tempFile = target.resolveSibling(kind + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(tempFile, data, StandardOpenOption.CREATE_NEW);
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Türetilen içeriği bul
+     * @param key Kaynak dosyanın anahtarı
+     * @param kind Türetilen içeriğin türü
+     * @param contentType Yanıtta kullanılacak içerik tipi
+     * @return Henüz türetilmediyse boş
+     */
+    public Optional<FileContent> get(String key, String kind, String contentType) throws IOException {
+        String eTag = "\"" + key + "-" + kind + "\"";
+        if (isMinio()) {
+            String objectName = getObjectName(key, kind);
+            StatObjectResponse stat;
+            try {
+                stat = minioClient.getObject().statObject(
+                        StatObjectArgs.builder().bucket(bucketName).object(objectName).build());
+            } catch (ErrorResponseException e) {
+                if ("NoSuchKey".equals(e.errorResponse().code())) {
+                    return Optional.empty();
+                }
+                throw new IOException("Türetilen içerik okunamadı: " + objectName, e);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Türetilen içerik okunamadı: " + objectName, e);
+            }
+            return Optional.of(FileContent.builder()
+                    .size(stat.size())
+                    .lastModified(stat.lastModified().toInstant())
+                    .eTag(eTag)
+                    .contentType(contentType)
+                    .reader((offset, length) -> openObject(objectName, offset, length))
+                    .build());
+        }
+
+        Path file = getPath(key, kind);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        return Optional.of(FileContent.builder()
+                .size(attributes.size())
+                .lastModified(attributes.lastModifiedTime().toInstant())
+                .eTag(eTag)
+                .contentType(contentType)
+                .file(file)
+                .reader((offset, length) -> openFile(file, offset, length))
+                .build());
+    }
+
+    /**
+     * Kaynak dosya (veya paylaşılan içeriği) silindiğinde ondan türetilen tüm içerikleri sil.
+     * Hata durumunda sadece uyarı yazılır; kalan içerik yer kaplar ama tutarlılığı bozmaz.
+     * @param key Kaynak dosyanın anahtarı
+     */
+    public void delete(String key) {
+        try {
+            if (isMinio()) {
+                MinioClient client = minioClient.getObject();
+                for (Result<Item> result : client.listObjects(ListObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .prefix(MINIO_PREFIX + "/" + key + "/")
+                        .build())) {
+                    client.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(result.get().objectName()).build());
+                }
+                return;
+            }
+
+            Path dir = Paths.get(uploadDir).resolve(FILESYSTEM_DIR).resolve(key);
+            if (!Files.isDirectory(dir)) {
+                return;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(dir);
+        } catch (Exception e) {
+            log.warn("Türetilen içerikler silinemedi: {}", key, e);
+        }
+    }
+
+    private InputStream openObject(String objectName, long offset, long length) throws IOException {
+        try {
+            return minioClient.getObject().getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Türetilen içerik okunamadı: " + objectName, e);
+        }
+    }
+
+    private InputStream openFile(Path file, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            return new BoundedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private String getObjectName(String key, String kind) {
+        return MINIO_PREFIX + "/" + key + "/" + kind;
+    }
+
+    private Path getPath(String key, String kind) {
+        return Paths.get(uploadDir).resolve(FILESYSTEM_DIR).resolve(key).resolve(kind);
+    }
+
+    private boolean isMinio() {
+        return minioEnabled && "minio".equals(storageType);
+    }
+}
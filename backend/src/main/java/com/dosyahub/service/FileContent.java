@@ -0,0 +1,60 @@
+package com.dosyahub.service;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * İndirilecek bir dosyanın boyut ve sürüm bilgileri ile içeriğine aralıklı erişim.
+ * İçerik sadece istenen bayt aralıkları için açılır; MinIO'da aralıklı GET isteği,
+ * dosya sisteminde ise konumlu kanal okuması kullanılır.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class FileContent {
+
+    private final long size;
+    private final Instant lastModified;
+    // Tırnaklı, güçlü sürüm etiketi (If-Range karşılaştırması için)
+    private final String eTag;
+    private final String contentType;
+    // İçeriğin yerel diskteki dosyası; sadece dosya sistemi deposunda dolu (sendfile ile gönderim için)
+    private final Path file;
+    // Sadece encoded gösterimde dolu: içeriğin HTTP içerik kodlaması (ör. "deflate")
+    private final String contentEncoding;
+    // İçerik depoda sıkıştırılmış saklanıyorsa depodaki hali; kodlamayı kabul eden istemcilere çözülmeden gönderilir
+    private final FileContent encoded;
+
+    @Getter(AccessLevel.NONE)
+    private final RangeReader reader;
+
+    /**
+     * İçeriğin bir bölümünü aç
+     * @param offset Başlangıç konumu
+     * @param length Okunacak bayt sayısı
+     * @return Sadece istenen aralığı döndüren akış
+     * @throws IOException Okuma hatası
+     */
+    public InputStream open(long offset, long length) throws IOException {
+        return reader.open(offset, length);
+    }
+
+    /**
+     * Tüm içeriği aç
+     * @return İçerik akışı
+     * @throws IOException Okuma hatası
+     */
+    public InputStream open() throws IOException {
+        return reader.open(0, size);
+    }
+
+    @FunctionalInterface
+    public interface RangeReader {
+        InputStream open(long offset, long length) throws IOException;
+    }
+}
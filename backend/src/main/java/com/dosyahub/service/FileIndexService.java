@@ -0,0 +1,349 @@
+package com.dosyahub.service;
+
+import com.dosyahub.exception.FileStorageException;
+import com.dosyahub.repository.FileMetadataRepository;
+import com.dosyahub.repository.FileMetadataRepository.UploadTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Dosya sistemi depolaması için kullanıcı başına ikili (binary) metadata indeksi.
+ * Listeleme, sayma ve sıralama dosya başına sistem çağrısı yapmadan bellek eşlemeli indeks dosyasından okunur.
+ * İndeks yükleme/silme sırasında güncellenir; eksik veya eskiyse (kullanıcı dizininin değişiklik zamanı
+ * indekstekiyle uyuşmuyorsa) ilk okumada dizin taranarak yeniden oluşturulur.
+ *
+ * Dosya düzeni (big-endian):
+ * <pre>
+ * başlık : int magic | short sürüm | long dizin değişiklik zamanı (ns) | int kayıt sayısı
+ * kayıt  : long boyut | long oluşturma zamanı (epoch ns) | short ad uzunluğu | ad (UTF-8)
+ *          | byte içerik türü uzunluğu | içerik türü (UTF-8)
+ * </pre>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FileIndexService {
+
+    private static final int MAGIC = 0x44484958; // "DHIX"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Long.BYTES + Integer.BYTES;
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final FileMetadataRepository fileMetadataRepository;
+
+    @Value("${storage.upload-dir:uploads}")
+    private String uploadDir;
+
+    private Path rootLocation;
+    private Path indexLocation;
+
+    private final Map<UUID, Object> locks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            rootLocation = Paths.get(uploadDir);
+            // İndeks dosyaları kullanıcı dizinlerinin dışında tutulur, böylece dizin değişiklik zamanını etkilemez
+            indexLocation = rootLocation.resolve(".index");
+            Files.createDirectories(indexLocation);
+        } catch (IOException e) {
+            throw new FileStorageException("İndeks dizini oluşturulamadı", e);
+        }
+    }
+
+    /**
+     * Kullanıcı dizininin güncel sürümünü (değişiklik zamanı) al. Dizine yazmadan önce alınıp
+     * {@link #add} / {@link #remove} metotlarına verilir.
+     * @param userId Kullanıcı ID
+     * @return Dizin değişiklik zamanı
+     */
+    public FileTime version(UUID userId) {
+        try {
+            return Files.getLastModifiedTime(userDir(userId));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Kullanıcının dosya kayıtlarını getir
+     * @param userId Kullanıcı ID
+     * @return Sıralanmamış dosya kayıtları
+     */
+    public List<Entry> entries(UUID userId) {
+        try {
+            Path userDir = userDir(userId);
+
+            // Kullanıcı dizini yoksa oluştur
+            if (!Files.exists(userDir)) {
+                Files.createDirectories(userDir);
+                return new ArrayList<>();
+            }
+
+            FileTime dirModified = Files.getLastModifiedTime(userDir);
+            List<Entry> entries = readIndex(userId, dirModified);
+            if (entries != null) {
+                return entries;
+            }
+
+            synchronized (lock(userId)) {
+                dirModified = Files.getLastModifiedTime(userDir);
+                entries = readIndex(userId, dirModified);
+                if (entries == null) {
+                    entries = scan(userId, userDir);
+                    writeIndex(userId, dirModified, entries);
+                    log.info("Dosya indeksi yeniden oluşturuldu: kullanıcı={}, dosya sayısı={}", userId, entries.size());
+                }
+                return entries;
+            }
+        } catch (IOException e) {
+            log.error("Dosya indeksi okuma hatası", e);
+            throw new FileStorageException("Dosyaları listelerken hata oluştu", e);
+        }
+    }
+
+    /**
+     * Yeni kaydedilen dosyayı indekse ekle
+     * @param userId Kullanıcı ID
+     * @param versionBefore Dosya yazılmadan önceki dizin sürümü
+     * @param entry Eklenecek kayıt
+     */
+    public void add(UUID userId, FileTime versionBefore, Entry entry) {
+        update(userId, versionBefore, entries -> {
+            entries.removeIf(existing -> existing.getFilename().equals(entry.getFilename()));
+            entries.add(entry);
+        });
+    }
+
+    /**
+     * Silinen dosyayı indeksten çıkar
+     * @param userId Kullanıcı ID
+     * @param versionBefore Dosya silinmeden önceki dizin sürümü
+     * @param filename Silinen dosya adı
+     */
+    public void remove(UUID userId, FileTime versionBefore, String filename) {
+        update(userId, versionBefore, entries -> entries.removeIf(existing -> existing.getFilename().equals(filename)));
+    }
+
+    private void update(UUID userId, FileTime versionBefore, Consumer<List<Entry>> change) {
+        synchronized (lock(userId)) {
+            try {
+                Path userDir = userDir(userId);
+                FileTime dirModified = Files.getLastModifiedTime(userDir);
+
+                // İndeks bu yazmadan hemen önceki dizin durumunu yansıtıyorsa kayıt eklenip çıkarılır;
+                // aksi halde (eşzamanlı veya harici değişiklik) dizin yeniden taranır
+                List<Entry> entries = versionBefore != null ? readIndex(userId, versionBefore) : null;
+                if (entries != null) {
+                    entries = new ArrayList<>(entries);
+                    change.accept(entries);
+                } else {
+                    // Taramada henüz veritabanına yazılmamış bu dosyanın yükleme anı bulunamaz,
+                    // değişiklik taramanın üzerine yeniden uygulanır
+                    entries = scan(userId, userDir);
+                    change.accept(entries);
+                }
+                writeIndex(userId, dirModified, entries);
+            } catch (IOException e) {
+                // İndeks yazılamazsa silinir, bir sonraki listelemede yeniden oluşturulur
+                log.warn("Dosya indeksi güncellenemedi, yeniden oluşturulacak: {}", e.getMessage());
+                try {
+                    Files.deleteIfExists(indexFile(userId));
+                } catch (IOException ignored) {
+                    // Eski indeks zaten dizin zamanıyla uyuşmayacağı için kullanılmaz
+                }
+            }
+        }
+    }
+
+    /**
+     * İndeks dosyasını bellek eşlemeli olarak oku
+     * @param userId Kullanıcı ID
+     * @param expectedDirModified Beklenen dizin değişiklik zamanı
+     * @return Kayıtlar; indeks yoksa, eskiyse veya bozuksa null
+     */
+    private List<Entry> readIndex(UUID userId, FileTime expectedDirModified) {
+        try (FileChannel channel = FileChannel.open(indexFile(userId), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                return null;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                return null;
+            }
+            if (buffer.getLong() != expectedDirModified.to(TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+
+            int count = buffer.getInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long size = buffer.getLong();
+                long createdAtNanos = buffer.getLong();
+                String filename = readString(buffer, Short.toUnsignedInt(buffer.getShort()));
+                String contentType = readString(buffer, Byte.toUnsignedInt(buffer.get()));
+                entries.add(new Entry(filename, size, Instant.ofEpochSecond(0, createdAtNanos), contentType));
+            }
+            return entries;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.warn("Dosya indeksi okunamadı, yeniden oluşturulacak: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * İndeksi geçici dosyaya bellek eşlemeli olarak yazıp atomik olarak yerine taşı
+     * @param userId Kullanıcı ID
+     * @param dirModified İndeksin yansıttığı dizin değişiklik zamanı
+     * @param entries Kayıtlar
+     */
+    private void writeIndex(UUID userId, FileTime dirModified, List<Entry> entries) throws IOException {
+        List<byte[]> names = new ArrayList<>(entries.size());
+        List<byte[]> contentTypes = new ArrayList<>(entries.size());
+        long totalSize = HEADER_SIZE;
+        for (Entry entry : entries) {
+            byte[] name = entry.getFilename().getBytes(StandardCharsets.UTF_8);
+            byte[] contentType = (entry.getContentType() != null ? entry.getContentType() : DEFAULT_CONTENT_TYPE)
+                    .getBytes(StandardCharsets.UTF_8);
+            if (contentType.length > 0xFF) {
+                contentType = DEFAULT_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+            }
+            names.add(name);
+            contentTypes.add(contentType);
+            totalSize += Long.BYTES * 2 + Short.BYTES + name.length + Byte.BYTES + contentType.length;
+        }
+
+        Path target = indexFile(userId);
+        Path temp = indexLocation.resolve(userId + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, totalSize);
+                buffer.putInt(MAGIC);
+                buffer.putShort(VERSION);
+                buffer.putLong(dirModified.to(TimeUnit.NANOSECONDS));
+                buffer.putInt(entries.size());
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = entries.get(i);
+                    buffer.putLong(entry.getSize());
+                    buffer.putLong(entry.getCreatedAt().getEpochSecond() * 1_000_000_000L + entry.getCreatedAt().getNano());
+                    buffer.putShort((short) names.get(i).length);
+                    buffer.put(names.get(i));
+                    buffer.put((byte) contentTypes.get(i).length);
+                    buffer.put(contentTypes.get(i));
+                }
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Kullanıcı dizinini tarayarak kayıtları oluştur (sadece indeks eksik veya eskiyse).
+     * Aynı içerik kullanıcılar arasında sabit bağlantıyla paylaşıldığından inode zamanları yükleme anını
+     * yansıtmaz; oluşturma zamanı veritabanındaki yükleme zamanından alınır, kaydı olmayan dosyada inode zamanına düşülür.
+     * @param userId Kullanıcı ID
+     * @param userDir Kullanıcı dizini
+     * @return Dosya kayıtları
+     */
+    private List<Entry> scan(UUID userId, Path userDir) throws IOException {
+        Map<String, Instant> uploadTimes = new HashMap<>();
+        for (UploadTime uploadTime : fileMetadataRepository.findUploadTimesByUserId(userId)) {
+            uploadTimes.put(uploadTime.getStoredFilename(),
+                    uploadTime.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(userDir)) {
+            for (Path path : stream) {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                    // Sadece dosyaları al
+                    if (attrs.isRegularFile()) {
+                        String filename = path.getFileName().toString();
+                        String contentType = Files.probeContentType(path);
+                        Instant createdAt = uploadTimes.get(userId + "/" + filename);
+                        entries.add(new Entry(filename, attrs.size(),
+                                createdAt != null ? createdAt : attrs.creationTime().toInstant(),
+                                contentType != null ? contentType : DEFAULT_CONTENT_TYPE));
+                    }
+                } catch (IOException e) {
+                    log.error("Dosya bilgisi okuma hatası", e);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Path userDir(UUID userId) {
+        return rootLocation.resolve(userId.toString());
+    }
+
+    private Path indexFile(UUID userId) {
+        return indexLocation.resolve(userId + ".idx");
+    }
+
+    private Object lock(UUID userId) {
+        return locks.computeIfAbsent(userId, id -> new Object());
+    }
+
+    /**
+     * İndeksteki dosya kaydı
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final String filename;
+        private final long size;
+        private final Instant createdAt;
+        private final String contentType;
+    }
+}
@@ -0,0 +1,178 @@
+package com.dosyahub.service;
+
+import com.dosyahub.model.dto.FileCursor;
+import com.dosyahub.model.dto.FileListing;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Kullanıcı başına dosya listeleme sayfalarının ve toplam sayıların önbelleği.
+ * Boyutu tahmini bayt cinsinden sınırlıdır; yükleme ve silme işlemleri ilgili kullanıcının kayıtlarını geçersiz kılar.
+ * İsabet oranı, tahliyeler ve bellek kullanımı Actuator metrics uç noktasında "cache.*{cache=fileListings}"
+ * ve "dosyahub.listing.cache.*" olarak yayınlanır.
+ */
+@Component
+@Slf4j
+public class FileListingCache {
+
+    private static final String CACHE_NAME = "fileListings";
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Cache<Key, FileListing> cache;
+
+    // Sürüm etiketlerini uygulamanın bu çalışmasına bağlar; yeniden başlatmada sayaçlar sıfırlansa da etiketler çakışmaz
+    private final String instanceId = Long.toHexString(System.currentTimeMillis());
+
+    // Kullanıcı başına sürüm: geçersiz kılma sırasında devam eden yüklemelerin eski sonucu yazması önlenir.
+    // Sürümler tüm kullanıcılar için ortak artan sayaçtan alınır; düşen bir sürüm sayacın güncel değeriyle yeniden
+    // başlatılır ve bu, kullanıcının son değişikliğinden önce yazılmış hiçbir anahtarla eşleşmez
+    private final Cache<UUID, Long> generations;
+    private final AtomicLong generationCounter = new AtomicLong();
+
+    public FileListingCache(@Value("${storage.listing-cache.enabled:true}") boolean enabled,
+                            @Value("${storage.listing-cache.max-bytes:33554432}") long maxBytes,
+                            @Value("${storage.listing-cache.ttl:10m}") Duration ttl,
+                            @Value("${storage.listing-cache.max-users:100000}") long maxUsers,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, FileListing listing) -> estimateSize(listing))
+                // Harici değişiklikler (diğer düğümler, elle silinen dosyalar) en fazla bu süre kadar görünmez kalır
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Sürüm, kullanıcının listeleme kayıtları kadar yaşar; erişilmeyen kullanıcılar düşer
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(ttl)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("dosyahub.listing.cache.weight", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Önbellekteki listeleme sayfalarının tahmini boyutu")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("dosyahub.listing.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Listeleme önbelleği isabet oranı")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sayfalı listeleme sonucunu önbellekten getir, yoksa yükleyip sakla
+     * @param userId Kullanıcı ID
+     * @param pageable Sayfalama ve sıralama
+     * @param search Arama metni
+     * @param loader Önbellekte yoksa listeyi oluşturan fonksiyon
+     * @return Listeleme sonucu
+     */
+    public FileListing get(UUID userId, Pageable pageable, String search, Supplier<FileListing> loader) {
+        return get(new Key(userId, generation(userId), pageable.getSort().toString(), normalize(search),
+                pageable.getOffset(), pageable.getPageSize(), null), loader);
+    }
+
+    /**
+     * İmleçli listeleme sonucunu önbellekten getir, yoksa yükleyip sakla
+     * @param userId Kullanıcı ID
+     * @param cursor İmleç
+     * @param search Arama metni
+     * @param size Sayfa boyutu
+     * @param loader Önbellekte yoksa listeyi oluşturan fonksiyon
+     * @return Listeleme sonucu
+     */
+    public FileListing get(UUID userId, FileCursor cursor, String search, int size, Supplier<FileListing> loader) {
+        return get(new Key(userId, generation(userId), null, normalize(search), 0, size, cursor.encode()), loader);
+    }
+
+    /**
+     * Kullanıcının listeleme sürümünü zayıf ETag olarak döndür. Etiket kullanıcının her yükleme ve silme işleminde,
+     * ayrıca harici değişikliklerin de görünmesi için önbellek süresi (ttl) dolduğunda değişir.
+     * @param userId Kullanıcı ID
+     * @return Zayıf sürüm etiketi (W/"...")
+     */
+    public String getETag(UUID userId) {
+        long window = System.currentTimeMillis() / Math.max(ttl.toMillis(), 1);
+        return "W/\"" + instanceId + "-" + Long.toHexString(generation(userId)) + "-" + Long.toHexString(window) + "\"";
+    }
+
+    /**
+     * Kullanıcının tüm listeleme kayıtlarını geçersiz kıl (yükleme ve silme sonrası çağrılır)
+     * @param userId Kullanıcı ID
+     */
+    public void invalidate(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        // Eski sürümlü anahtarlara artık erişilmez; süreleri dolunca veya boyut sınırıyla düşerler
+        generations.put(userId, generationCounter.incrementAndGet());
+        log.debug("Listeleme önbelleği geçersiz kılındı: kullanıcı={}", userId);
+    }
+
+    private FileListing get(Key key, Supplier<FileListing> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return cache.get(key, k -> loader.get());
+    }
+
+    private long generation(UUID userId) {
+        return generations.get(userId, id -> generationCounter.get());
+    }
+
+    private static String normalize(String search) {
+        return search == null || search.isBlank() ? null : search.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Listeleme sonucunun bellekte kapladığı alanı kabaca tahmin et
+     * @param listing Listeleme sonucu
+     * @return Tahmini bayt
+     */
+    private static int estimateSize(FileListing listing) {
+        long size = 128;
+        for (Map<String, Object> file : listing.getFiles()) {
+            // HashMap ve giriş nesneleri
+            size += 64 + file.size() * 48L;
+            for (Object value : file.values()) {
+                size += value instanceof String ? 40 + ((String) value).length() * 2L : 16;
+            }
+        }
+        if (listing.getNextCursor() != null) {
+            size += 40 + listing.getNextCursor().length() * 2L;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final UUID userId;
+        private final long generation;
+        private final String sort;
+        private final String search;
+        private final long offset;
+        private final int size;
+        private final String cursor;
+    }
+}
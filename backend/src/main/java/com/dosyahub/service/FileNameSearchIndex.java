@@ -0,0 +1,191 @@
+package com.dosyahub.service;
+
+import com.dosyahub.service.FileIndexService.Entry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dosya sistemi depolaması için bellek içi trigram (3-gram) dosya adı arama indeksi.
+ * Veritabanındaki pg_trgm indeksinin karşılığıdır: arama sadece terimin tüm trigramlarını içeren
+ * dosyalara bakar. Kullanıcı başına indeks, dizin sürümü değişene kadar yeniden kullanılır.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FileNameSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final FileIndexService fileIndexService;
+
+    @Value("${storage.search.ngram-cache-size:256}")
+    private int maxCachedUsers;
+
+    // Son kullanılan kullanıcıların indeksleri (erişim sırasına göre LRU)
+    private final Map<UUID, UserIndex> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, UserIndex> eldest) {
+            return size() > maxCachedUsers;
+        }
+    };
+
+    /**
+     * Orijinal dosya adında aranan metni içeren dosyaları bul
+     * @param userId Kullanıcı ID
+     * @param search Arama metni
+     * @return Eşleşen dosya kayıtları (sıralanmamış)
+     */
+    public List<Entry> search(UUID userId, String search) {
+        return getIndex(userId).search(normalize(search));
+    }
+
+    private UserIndex getIndex(UUID userId) {
+        FileTime version = fileIndexService.version(userId);
+        synchronized (cache) {
+            UserIndex index = cache.get(userId);
+            if (index != null && version != null && version.equals(index.version)) {
+                return index;
+            }
+        }
+
+        UserIndex index = new UserIndex(version, fileIndexService.entries(userId));
+        synchronized (cache) {
+            cache.put(userId, index);
+        }
+        log.debug("Dosya adı arama indeksi oluşturuldu: kullanıcı={}, dosya sayısı={}", userId, index.entries.length);
+        return index;
+    }
+
+    /**
+     * Saklanan dosya adından (UUID_orijinalAd) aranacak orijinal adı çıkar
+     * @param filename Saklanan dosya adı
+     * @return Küçük harfe çevrilmiş orijinal ad
+     */
+    private static String searchableName(String filename) {
+        int separator = filename.indexOf('_');
+        return normalize(separator >= 0 ? filename.substring(separator + 1) : filename);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long gramKey(String value, int offset) {
+        return ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+
+    /**
+     * Tek kullanıcının trigram indeksi: her trigram için o trigramı içeren kayıtların artan sıralı konumları
+     */
+    private static class UserIndex {
+        private final FileTime version;
+        private final Entry[] entries;
+        private final String[] names;
+        private final Map<Long, int[]> postings;
+
+        UserIndex(FileTime version, List<Entry> entryList) {
+            this.version = version;
+            this.entries = entryList.toArray(new Entry[0]);
+            this.names = new String[entries.length];
+
+            Map<Long, IntList> builder = new HashMap<>();
+            for (int i = 0; i < entries.length; i++) {
+                names[i] = searchableName(entries[i].getFilename());
+                for (int offset = 0; offset + GRAM <= names[i].length(); offset++) {
+                    builder.computeIfAbsent(gramKey(names[i], offset), key -> new IntList()).addDistinct(i);
+                }
+            }
+
+            this.postings = new HashMap<>(builder.size() * 2);
+            builder.forEach((key, list) -> postings.put(key, list.toArray()));
+        }
+
+        List<Entry> search(String term) {
+            List<Entry> result = new ArrayList<>();
+            if (term.length() < GRAM) {
+                // Trigramdan kısa terimlerde indeks kullanılamaz, adlar doğrudan taranır
+                for (int i = 0; i < entries.length; i++) {
+                    if (names[i].contains(term)) {
+                        result.add(entries[i]);
+                    }
+                }
+                return result;
+            }
+
+            // Terimin trigramlarına ait listeleri en kısadan başlayarak kesiştir
+            List<int[]> lists = new ArrayList<>();
+            for (int offset = 0; offset + GRAM <= term.length(); offset++) {
+                int[] list = postings.get(gramKey(term, offset));
+                if (list == null) {
+                    return result;
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.length, b.length));
+
+            int[] candidates = lists.get(0);
+            for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+                candidates = intersect(candidates, lists.get(i));
+            }
+
+            // Trigramların hepsinin geçmesi sıralı geçmeyi garanti etmez, aday ad ayrıca doğrulanır
+            for (int position : candidates) {
+                if (names[position].contains(term)) {
+                    result.add(entries[position]);
+                }
+            }
+            return result;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+
+    /**
+     * Kutulanmamış int listesi (konumlar artan sırada eklenir)
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addDistinct(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -4,38 +4,71 @@ import com.dosyahub.exception.FileStorageException;
 import com.dosyahub.model.FileMetadata;
 import com.dosyahub.model.FileType;
 import com.dosyahub.model.User;
+import com.dosyahub.model.dto.FileCursor;
+import com.dosyahub.model.dto.FileListing;
 import com.dosyahub.repository.FileMetadataRepository;
 import com.dosyahub.repository.UserRepository;
+import com.dosyahub.service.FileIndexService.Entry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FileStorageService {
     
+    // Akışlı yüklemede tek seferde dosyaya aktarılan en fazla bayt
+    private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+    
+    // Parçalı yüklemelerin geçici dosyalarının dizini (yükleme kökü altında)
+    private static final String CHUNKED_UPLOAD_DIR = ".uploads";
+    
+    // İçerik adresli dosyaların dizini: .blobs/<özetin ilk iki karakteri>/<özet>
+    private static final String BLOB_DIR = ".blobs";
+    
+    // Dosya sistemi kayıtlarının bucket_name değeri
+    private static final String FILESYSTEM_BUCKET = "filesystem";
+    
     @Value("${storage.upload-dir:uploads}")
     private String uploadDir;
 
@@ -43,6 +76,12 @@ public class FileStorageService {
     
     private final FileMetadataRepository fileMetadataRepository;
     private final UserRepository userRepository;
+    private final FileIndexService fileIndexService;
+    private final FileNameSearchIndex fileNameSearchIndex;
+    private final FileListingCache fileListingCache;
+    private final StoredBlobService storedBlobService;
+    private final DerivedObjectStore derivedObjectStore;
+    private final ApplicationEventPublisher eventPublisher;
     
     @PostConstruct
     public void init() {
@@ -67,38 +106,392 @@ public class FileStorageService {
                 throw new FileStorageException("Yüklenecek dosya boş");
             }
             
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = getFileExtension(originalFilename);
-            String storedFilename = UUID.randomUUID() + "_" + originalFilename;
+            User user = userRepository.getReferenceById(userId);
+            String storedFilename = getStoredName(saveStoredFile(storeContent(user, file.getOriginalFilename(),
+                    file.getContentType(), file.getInputStream())));
+            log.info("Dosya kaydedildi: {}/{}", userId, storedFilename);
+            
+            return storedFilename;
+            
+        } catch (IOException e) {
+            throw new FileStorageException("Dosya yükleme sırasında hata oluştu", e);
+        }
+    }
+    
+    /**
+     * Akışlı dosya yükleme: içerik istek gövdesinden okunup doğrudan dosya kanalına aktarılır,
+     * geçici dizine ara kopya yazılmaz
+     * @param userId Kullanıcı ID
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @param inputStream Dosya içeriği
+     * @return Saklanan dosya adı (UUID ile)
+     */
+    public String storeFile(UUID userId, String originalFilename, String contentType, InputStream inputStream) {
+        try {
+            User user = userRepository.getReferenceById(userId);
+            String storedFilename = getStoredName(saveStoredFile(storeContent(user, originalFilename, contentType,
+                    inputStream)));
+            log.info("Dosya akışla kaydedildi: {}/{}", userId, storedFilename);
+            
+            return storedFilename;
+            
+        } catch (IOException e) {
+            throw new FileStorageException("Dosya yükleme sırasında hata oluştu", e);
+        }
+    }
+    
+    /**
+     * İçeriği yazarken SHA-256 özetini hesapla ve içerik adresli olarak sakla.
+     * İçerik önce geçici dosyaya yazılır; aynı özetle saklanan içerik varsa geçici dosya silinir, yoksa
+     * .blobs altındaki kalıcı konumuna taşınır. Kullanıcı dizinindeki dosya bu içeriğe sabit bağlantıdır (hard link),
+     * böylece dizin taramasına dayanan listeleme ve indirme değişmeden çalışır.
+     * @param user Kullanıcı
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @param inputStream Dosya içeriği
+     * @return Henüz kaydedilmemiş metadata ({@link #saveStoredFile(FileMetadata)} ile kaydedilir)
+     */
+    private FileMetadata storeContent(User user, String originalFilename, String contentType,
+                                      InputStream inputStream) throws IOException {
+        UUID userId = user.getId();
+        String storedFilename = UUID.randomUUID() + "_" + originalFilename;
+        
+        // Kullanıcı dizinini oluştur
+        Path userDir = rootLocation.resolve(userId.toString());
+        Files.createDirectories(userDir);
+        
+        Path tempDir = rootLocation.resolve(BLOB_DIR).resolve("tmp");
+        Files.createDirectories(tempDir);
+        Path tempFile = tempDir.resolve(UUID.randomUUID() + ".tmp");
+        try {
+            DigestInputStream digestStream = StoredBlobService.digesting(inputStream);
+            long size;
+            try (ReadableByteChannel source = Channels.newChannel(digestStream);
+                 FileChannel target = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                size = transfer(source, target);
+            }
+            if (size == 0) {
+                throw new FileStorageException("Yüklenecek dosya boş");
+            }
+            
+            String contentHash = StoredBlobService.hex(digestStream);
+            Path blobFile = getBlobPath(contentHash);
+            boolean deduplicated = storedBlobService.acquire(FILESYSTEM_BUCKET, contentHash, size, () -> {
+                Files.createDirectories(blobFile.getParent());
+                Files.move(tempFile, blobFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            });
+            if (deduplicated) {
+                log.info("Aynı içerik zaten saklanıyor, sadece bağlantı oluşturuldu: {} ({})", storedFilename, contentHash);
+            }
             
-            // Kullanıcı dizinini oluştur
+            Path targetLocation = userDir.resolve(storedFilename);
+            try {
+                FileTime indexVersion = fileIndexService.version(userId);
+                linkBlob(blobFile, targetLocation);
+                return indexStoredFile(user, indexVersion, targetLocation, originalFilename, contentType, contentHash);
+            } catch (IOException | RuntimeException e) {
+                // Kayıt tamamlanamadıysa alınan referans geri bırakılır
+                Files.deleteIfExists(targetLocation);
+                storedBlobService.release(FILESYSTEM_BUCKET, contentHash, () -> Files.deleteIfExists(blobFile));
+                throw e;
+            }
+        } finally {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                log.warn("Geçici dosya silinemedi: {}", tempFile, e);
+            }
+        }
+    }
+    
+    /**
+     * Toplu yükleme için dosya içeriğini sakla; metadata kaydı {@link #registerStoredFiles(List)} ile
+     * tüm dosyalar için tek seferde yapılır
+     * @param user Kullanıcı
+     * @param file Yüklenecek dosya
+     * @return Henüz kaydedilmemiş metadata
+     */
+    public FileMetadata storeFileContent(User user, MultipartFile file) {
+        try {
+            if (file.isEmpty()) {
+                throw new FileStorageException("Yüklenecek dosya boş");
+            }
+            return storeContent(user, file.getOriginalFilename(), file.getContentType(), file.getInputStream());
+        } catch (IOException e) {
+            throw new FileStorageException("Dosya yükleme sırasında hata oluştu", e);
+        }
+    }
+    
+    /**
+     * İçerikleri saklanmış dosyaların metadata kayıtlarını tek JDBC toplu işleminde (batch) kaydet
+     * @param metadataList Kaydedilecek metadata listesi
+     * @return Kaydedilen metadata listesi
+     */
+    public List<FileMetadata> registerStoredFiles(List<FileMetadata> metadataList) {
+        try {
+            List<FileMetadata> saved = fileMetadataRepository.saveAll(metadataList);
+            metadataList.stream().map(m -> m.getUser().getId()).distinct().forEach(fileListingCache::invalidate);
+            saved.forEach(metadata -> eventPublisher.publishEvent(new FileStoredEvent(metadata)));
+            return saved;
+        } catch (RuntimeException e) {
+            metadataList.forEach(this::discardStoredFile);
+            throw e;
+        }
+    }
+    
+    /**
+     * Kullanıcı dizinindeki dosyayı paylaşılan içeriğe sabit bağlantı olarak oluştur.
+     * Dosya sistemi sabit bağlantıyı desteklemiyorsa içerik kopyalanır.
+     * @param blobFile Paylaşılan içerik dosyası
+     * @param targetLocation Kullanıcı dizinindeki dosya
+     */
+    private void linkBlob(Path blobFile, Path targetLocation) throws IOException {
+        try {
+            Files.createLink(targetLocation, blobFile);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            log.debug("Sabit bağlantı oluşturulamadı, içerik kopyalanıyor: {}", targetLocation, e);
+            Files.copy(blobFile, targetLocation);
+        }
+    }
+    
+    private Path getBlobPath(String contentHash) {
+        return rootLocation.resolve(BLOB_DIR).resolve(contentHash.substring(0, 2)).resolve(contentHash);
+    }
+    
+    /**
+     * Parçalı yükleme için toplam boyutta geçici dosya oluştur
+     * @param uploadId Yükleme oturumu ID
+     * @param size Dosyanın toplam boyutu
+     */
+    public void createChunkedUpload(UUID uploadId, long size) {
+        Path partFile = getChunkedUploadPath(uploadId);
+        try {
+            Files.createDirectories(partFile.getParent());
+            try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                // Son bayt yazılarak dosya hedef boyuta genişletilir (destekleyen dosya sistemlerinde seyrek dosya)
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Yükleme oturumu oluşturulamadı", e);
+        }
+    }
+    
+    /**
+     * Parçayı geçici dosyadaki konumuna yaz. Parçalar birbirinden bağımsız ve eşzamanlı yazılabilir.
+     * @param uploadId Yükleme oturumu ID
+     * @param offset Parçanın dosyadaki başlangıç konumu
+     * @param length Parçanın beklenen uzunluğu
+     * @param inputStream Parça içeriği
+     */
+    public void writeChunk(UUID uploadId, long offset, long length, InputStream inputStream) {
+        Path partFile = getChunkedUploadPath(uploadId);
+        try (ReadableByteChannel source = Channels.newChannel(inputStream);
+             FileChannel target = FileChannel.open(partFile, StandardOpenOption.WRITE)) {
+            long written = 0;
+            long transferred;
+            while (written < length
+                    && (transferred = target.transferFrom(source, offset + written, length - written)) > 0) {
+                written += transferred;
+            }
+            if (written != length) {
+                throw new FileStorageException("Parça eksik: beklenen " + length + " bayt, alınan " + written + " bayt");
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Parça yazılamadı", e);
+        }
+    }
+    
+    /**
+     * Tüm parçaları yazılmış geçici dosyayı kullanıcı dizinine taşı ve kaydet
+     * @param userId Kullanıcı ID
+     * @param uploadId Yükleme oturumu ID
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @return Saklanan dosya adı (UUID ile)
+     */
+    public String completeChunkedUpload(UUID userId, UUID uploadId, String originalFilename, String contentType) {
+        Path partFile = getChunkedUploadPath(uploadId);
+        String storedFilename = UUID.randomUUID() + "_" + originalFilename;
+        try {
             Path userDir = rootLocation.resolve(userId.toString());
             Files.createDirectories(userDir);
+            FileTime indexVersion = fileIndexService.version(userId);
             
-            // Dosyayı kaydet
+            // Geçici dosya aynı dosya sisteminde olduğu için kopyalanmadan yeniden adlandırılır
             Path targetLocation = userDir.resolve(storedFilename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            
-            log.info("Dosya kaydedildi: {}", targetLocation);
+            Files.move(partFile, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Parçalı yükleme tamamlandı: {}", targetLocation);
             
-            // Veritabanına kaydet
-            User user = userRepository.findById(userId).orElseThrow();
-            FileMetadata metadata = FileMetadata.builder()
-                .user(user)
-                .originalFilename(originalFilename)
-                .storedFilename(userId + "/" + storedFilename)
-                .contentType(file.getContentType())
-                .fileType(getFileTypeFromContentType(file.getContentType()))
-                .size(file.getSize())
-                .bucketName("filesystem")
-                .build();
-            fileMetadataRepository.save(metadata);
+            registerStoredFile(userId, indexVersion, targetLocation, originalFilename, contentType, null);
             
             return storedFilename;
-            
         } catch (IOException e) {
-            throw new FileStorageException("Dosya yükleme sırasında hata oluştu", e);
+            throw new FileStorageException("Parçalı yükleme tamamlanamadı", e);
+        }
+    }
+    
+    /**
+     * Parçalı yüklemenin geçici dosyasını sil
+     * @param uploadId Yükleme oturumu ID
+     */
+    public void abortChunkedUpload(UUID uploadId) {
+        try {
+            Files.deleteIfExists(getChunkedUploadPath(uploadId));
+        } catch (IOException e) {
+            throw new FileStorageException("Geçici yükleme dosyası silinemedi", e);
+        }
+    }
+    
+    /**
+     * Oturumu artık bellekte olmayan (ör. sunucu yeniden başlatıldığında kalan) eski geçici yükleme dosyalarını sil
+     * @param threshold Bu andan önce son kez yazılmış dosyalar silinir
+     * @param activeUploads Açık oturumların ID'leri; bunların dosyalarına dokunulmaz
+     * @return Silinen dosya sayısı
+     */
+    public int removeStaleChunkedUploads(Instant threshold, Set<UUID> activeUploads) {
+        Path uploadDir = rootLocation.resolve(CHUNKED_UPLOAD_DIR);
+        if (!Files.isDirectory(uploadDir)) {
+            return 0;
+        }
+        int removed = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(uploadDir, "*.part")) {
+            for (Path partFile : stream) {
+                String name = partFile.getFileName().toString();
+                try {
+                    UUID uploadId = UUID.fromString(name.substring(0, name.length() - ".part".length()));
+                    if (!activeUploads.contains(uploadId)
+                            && Files.getLastModifiedTime(partFile).toInstant().isBefore(threshold)
+                            && Files.deleteIfExists(partFile)) {
+                        removed++;
+                    }
+                } catch (IllegalArgumentException e) {
+                    log.debug("Tanınmayan geçici yükleme dosyası atlandı: {}", partFile);
+                } catch (IOException e) {
+                    log.warn("Geçici yükleme dosyası silinemedi: {}", partFile, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Geçici yükleme dizini okunamadı", e);
         }
+        return removed;
+    }
+    
+    private Path getChunkedUploadPath(UUID uploadId) {
+        return rootLocation.resolve(CHUNKED_UPLOAD_DIR).resolve(uploadId + ".part");
+    }
+    
+    /**
+     * Kanaldaki tüm içeriği dosyaya aktar
+     * @param source Kaynak kanal
+     * @param target Hedef dosya kanalı
+     * @return Aktarılan bayt sayısı
+     */
+    private long transfer(ReadableByteChannel source, FileChannel target) throws IOException {
+        long position = 0;
+        long transferred;
+        while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+            position += transferred;
+        }
+        return position;
+    }
+    
+    /**
+     * Diske yazılan dosyayı listeleme indeksine ve veritabanına kaydet
+     * @param userId Kullanıcı ID
+     * @param indexVersion Yazmadan önceki indeks sürümü
+     * @param targetLocation Dosyanın yolu
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @param contentHash İçerik özeti (içerik adresli saklanmıyorsa null)
+     */
+    private void registerStoredFile(UUID userId, FileTime indexVersion, Path targetLocation,
+                                    String originalFilename, String contentType, String contentHash) throws IOException {
+        User user = userRepository.getReferenceById(userId);
+        saveStoredFile(indexStoredFile(user, indexVersion, targetLocation, originalFilename, contentType, contentHash));
+    }
+    
+    /**
+     * Diske yazılan dosyayı listeleme indeksine ekle ve metadata kaydını hazırla
+     * @param user Kullanıcı
+     * @param indexVersion Yazmadan önceki indeks sürümü
+     * @param targetLocation Dosyanın yolu
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @param contentHash İçerik özeti (içerik adresli saklanmıyorsa null)
+     * @return Henüz kaydedilmemiş metadata
+     */
+    private FileMetadata indexStoredFile(User user, FileTime indexVersion, Path targetLocation,
+                                         String originalFilename, String contentType, String contentHash) throws IOException {
+        UUID userId = user.getId();
+        String storedFilename = targetLocation.getFileName().toString();
+        
+        // Aynı içerik için paylaşılan sabit bağlantının inode zamanı yükleme anını yansıtmaz; indeks kaydı ve
+        // veritabanı aynı yükleme anını taşır (PostgreSQL mikrosaniye hassasiyetine kırpılarak)
+        LocalDateTime uploadedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        
+        // Listeleme indeksini güncelle
+        BasicFileAttributes attrs = Files.readAttributes(targetLocation, BasicFileAttributes.class);
+        fileIndexService.add(userId, indexVersion, new Entry(storedFilename, attrs.size(),
+                uploadedAt.atZone(ZoneId.systemDefault()).toInstant(), contentType));
+        
+        return FileMetadata.builder()
+            .user(user)
+            .originalFilename(originalFilename)
+            .storedFilename(userId + "/" + storedFilename)
+            .contentType(contentType)
+            .fileType(getFileTypeFromContentType(contentType))
+            .size(attrs.size())
+            .bucketName(FILESYSTEM_BUCKET)
+            .contentHash(contentHash)
+            .uploadedAt(uploadedAt)
+            .build();
+    }
+    
+    /**
+     * Metadata kaydını veritabanına yaz ve listeleme önbelleğini geçersiz kıl.
+     * Kayıt başarısız olursa diske yazılan dosya geri alınır.
+     * @param metadata Kaydedilecek metadata
+     * @return Kaydedilen metadata
+     */
+    private FileMetadata saveStoredFile(FileMetadata metadata) {
+        try {
+            FileMetadata saved = fileMetadataRepository.save(metadata);
+            fileListingCache.invalidate(metadata.getUser().getId());
+            eventPublisher.publishEvent(new FileStoredEvent(saved));
+            return saved;
+        } catch (RuntimeException e) {
+            discardStoredFile(metadata);
+            throw e;
+        }
+    }
+    
+    /**
+     * Veritabanına kaydedilemeyen dosyayı diskten sil ve içerik referansını bırak
+     * @param metadata Kaydedilemeyen metadata
+     */
+    private void discardStoredFile(FileMetadata metadata) {
+        try {
+            // Dosyanın silinmesi dizin sürümünü değiştirir, listeleme indeksi bir sonraki okumada yenilenir
+            Files.deleteIfExists(rootLocation.resolve(metadata.getStoredFilename()));
+        } catch (IOException e) {
+            log.warn("Kaydedilemeyen dosya silinemedi: {}", metadata.getStoredFilename(), e);
+        }
+        String contentHash = metadata.getContentHash();
+        if (contentHash != null) {
+            Path blobFile = getBlobPath(contentHash);
+            storedBlobService.release(FILESYSTEM_BUCKET, contentHash, () -> Files.deleteIfExists(blobFile));
+        }
+    }
+    
+    /**
+     * Metadata kaydındaki "userId/UUID_dosyaAdı" değerinden API'de kullanılan dosya adını çıkar
+     * @param metadata Dosya kaydı
+     * @return Saklanan dosya adı (UUID ile)
+     */
+    public String getStoredName(FileMetadata metadata) {
+        String storedFilename = metadata.getStoredFilename();
+        return storedFilename.substring(storedFilename.indexOf('/') + 1);
     }
     
     /**
@@ -122,7 +515,55 @@ public class FileStorageService {
             throw new FileStorageException("Dosya indirme sırasında hata oluştu", e);
         }
     }
-    
+
+    /**
+     * Dosyanın boyut ve sürüm bilgilerini al; içerik istenen aralıklar için konumlu okunur
+     * @param userId Kullanıcı ID
+     * @param storedFilename Saklanan dosya adı
+     * @return Aralıklı okunabilen dosya içeriği
+     */
+    public FileContent getFileContent(UUID userId, String storedFilename) {
+        try {
+            Path filePath = rootLocation.resolve(userId.toString()).resolve(storedFilename);
+            if (!Files.exists(filePath)) {
+                throw new FileStorageException("Dosya bulunamadı: " + storedFilename);
+            }
+
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            Optional<FileMetadata> metadata = fileMetadataRepository.findByStoredFilename(userId + "/" + storedFilename);
+            // Özeti olmayan (parçalı yüklenen) dosyalarda boyut ve değişiklik zamanı sürümü belirler
+            String eTag = metadata.map(FileMetadata::getContentHash)
+                    .orElse(Long.toHexString(attributes.size()) + "-"
+                            + Long.toHexString(attributes.lastModifiedTime().toMillis()));
+
+            Instant lastModified = metadata.map(FileMetadata::getUploadedAt)
+                    .map(uploadedAt -> uploadedAt.atZone(ZoneId.systemDefault()).toInstant())
+                    .orElse(attributes.lastModifiedTime().toInstant());
+
+            return FileContent.builder()
+                    .size(attributes.size())
+                    .lastModified(lastModified)
+                    .eTag("\"" + eTag + "\"")
+                    .contentType(metadata.map(FileMetadata::getContentType).orElse(null))
+                    .file(filePath)
+                    .reader((offset, length) -> openRange(filePath, offset, length))
+                    .build();
+        } catch (IOException e) {
+            throw new FileStorageException("Dosya indirme sırasında hata oluştu", e);
+        }
+    }
+
+    private InputStream openRange(Path filePath, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            return new BoundedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
     /**
      * Dosya silme
      * @param userId Kullanıcı ID
@@ -137,12 +578,27 @@ public class FileStorageService {
                 throw new FileStorageException("Dosya bulunamadı: " + storedFilename);
             }
             
+            FileTime indexVersion = fileIndexService.version(userId);
             Files.delete(filePath);
             log.info("Dosya silindi: {}", filePath);
+            fileIndexService.remove(userId, indexVersion, storedFilename);
             
             // Veritabanından dosya kaydını sil
-            fileMetadataRepository.findByStoredFilename(userId + "/" + storedFilename)
-                .ifPresent(fileMetadataRepository::delete);
+            Optional<FileMetadata> metadata = fileMetadataRepository.findByStoredFilename(userId + "/" + storedFilename);
+            metadata.ifPresent(fileMetadataRepository::delete);
+            fileListingCache.invalidate(userId);
+            
+            // Paylaşılan içerik son bağlantısı da silindiyse türetilen içeriklerle (küçük resim vb.) birlikte kaldırılır
+            String contentHash = metadata.map(FileMetadata::getContentHash).orElse(null);
+            if (contentHash != null) {
+                Path blobFile = getBlobPath(contentHash);
+                storedBlobService.release(FILESYSTEM_BUCKET, contentHash, () -> {
+                    Files.deleteIfExists(blobFile);
+                    derivedObjectStore.delete(contentHash);
+                });
+            } else {
+                metadata.map(DerivedObjectStore::keyOf).ifPresent(derivedObjectStore::delete);
+            }
             
         } catch (IOException e) {
             throw new FileStorageException("Dosya silme sırasında hata oluştu", e);
@@ -154,220 +610,201 @@ public class FileStorageService {
      * @param userId Kullanıcı ID
      * @param pageable Sayfalama ve sıralama
      * @param search Arama metni
-     * @return Dosya nesneleri listesi
+     * @return Sayfadaki dosya bilgileri, toplam dosya sayısı ve varsa sonraki sayfanın imleci
      */
-    public List<Map<String, Object>> listFiles(UUID userId, Pageable pageable, String search) {
-        try {
-            Path userDir = rootLocation.resolve(userId.toString());
-            
-            // Kullanıcı dizini yoksa oluştur
-            if (!Files.exists(userDir)) {
-                Files.createDirectories(userDir);
-                return new ArrayList<>();
-            }
-            
-            List<Map<String, Object>> filesList = new ArrayList<>();
-            
-            try (Stream<Path> filesStream = Files.list(userDir)) {
-                filesList = filesStream
-                    .filter(path -> {
-                        try {
-                            // Sadece dosyaları filtrele
-                            if (!Files.isRegularFile(path)) {
-                                return false;
-                            }
-                            
-                            // Arama metni varsa dosya adında ara
-                            if (search != null && !search.isEmpty()) {
-                                return path.getFileName().toString().toLowerCase()
-                                    .contains(search.toLowerCase());
-                            }
-                            
-                            return true;
-                        } catch (Exception e) {
-                            log.error("Dosya filtreleme hatası", e);
-                            return false;
-                        }
-                    })
-                    .sorted(getComparator(pageable.getSort()))
-                    .skip(pageable.getOffset())
-                    .limit(pageable.getPageSize())
-                    .map(path -> {
-                        try {
-                            String filename = path.getFileName().toString();
-                            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
-                            
-                            // Orijinal dosya adını al (UUID kısmını çıkar)
-                            String originalName = filename;
-                            if (filename.contains("_")) {
-                                originalName = filename.substring(filename.indexOf('_') + 1);
-                            }
-                            
-                            // Dosya bilgilerini topla
-                            Map<String, Object> fileInfo = new HashMap<>();
-                            fileInfo.put("id", path.getFileName().toString().split("_")[0]);  // UUID kısmı
-                            fileInfo.put("filename", filename);
-                            fileInfo.put("originalName", originalName);
-                            fileInfo.put("size", Files.size(path));
-                            fileInfo.put("contentType", getContentType(path));
-                            fileInfo.put("uploadDate", attrs.creationTime().toInstant().toString());
-                            fileInfo.put("isPublic", false);  // Varsayılan olarak dosyalar özel
-                            fileInfo.put("ownerId", userId.toString());
-                            
-                            return fileInfo;
-                        } catch (IOException e) {
-                            log.error("Dosya bilgisi okuma hatası", e);
-                            return null;
-                        }
-                    })
-                    .filter(fileInfo -> fileInfo != null)
-                    .collect(Collectors.toList());
-            }
-            
-            return filesList;
-        } catch (IOException e) {
-            log.error("Dosya listeleme hatası", e);
-            throw new FileStorageException("Dosyaları listelerken hata oluştu", e);
+    public FileListing listFiles(UUID userId, Pageable pageable, String search) {
+        return fileListingCache.get(userId, pageable, search, () -> queryFiles(userId, pageable, search));
+    }
+
+    /**
+     * Sayfalı listeyi önbelleğe bakmadan oluştur
+     */
+    private FileListing queryFiles(UUID userId, Pageable pageable, String search) {
+        List<Entry> entries = readEntries(userId, search);
+        entries.sort(getComparator(pageable.getSort()));
+
+        int fromIndex = (int) Math.min(pageable.getOffset(), entries.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), entries.size());
+        List<Entry> pageEntries = entries.subList(fromIndex, toIndex);
+
+        String nextCursor = null;
+        if (toIndex < entries.size() && !pageEntries.isEmpty() && FileCursor.supports(pageable.getSort())) {
+            Entry last = pageEntries.get(pageEntries.size() - 1);
+            nextCursor = FileCursor.after(pageable.getSort(), FileCursor.toEpochNanos(last.getCreatedAt()),
+                    last.getSize(), last.getFilename()).encode();
         }
+
+        return FileListing.builder()
+                .files(toFileInfos(userId, pageEntries))
+                .totalCount((long) entries.size())
+                .nextCursor(nextCursor)
+                .build();
     }
-    
+
     /**
-     * Kullanıcı dosyalarının sayısını sayma
+     * Kullanıcı dosyalarını imleçten itibaren listeleme (keyset sayfalama)
      * @param userId Kullanıcı ID
+     * @param cursor Önceki sayfanın son kaydını gösteren imleç
      * @param search Arama metni
-     * @return Dosya sayısı
+     * @param size Sayfa başına dosya sayısı
+     * @return Sayfadaki dosya bilgileri ve varsa sonraki sayfanın imleci
      */
-    public long countFiles(UUID userId, String search) {
-        try {
-            Path userDir = rootLocation.resolve(userId.toString());
+    public FileListing listFilesAfter(UUID userId, FileCursor cursor, String search, int size) {
+        return fileListingCache.get(userId, cursor, search, size, () -> queryFilesAfter(userId, cursor, search, size));
+    }
+
+    /**
+     * İmleçli listeyi önbelleğe bakmadan oluştur
+     */
+    private FileListing queryFilesAfter(UUID userId, FileCursor cursor, String search, int size) {
+        Comparator<Entry> comparator = getCursorComparator(cursor);
+        Entry cursorEntry = cursor.isSortedBySize()
+                ? new Entry(cursor.getLastId(), cursor.getValue(), null, null)
+                : new Entry(cursor.getLastId(), 0, toInstant(cursor.getValue()), null);
+
+        // İmleçten sonra gelen kayıtlardan en küçük size+1 tanesi seçilir, atlanan kayıtlar sıralanmaz
+        List<Entry> entries = readEntries(userId, search).stream()
+                .filter(entry -> comparator.compare(entry, cursorEntry) > 0)
+                .sorted(comparator)
+                .limit(size + 1L)
+                .collect(Collectors.toList());
+
+        boolean hasNext = entries.size() > size;
+        List<Entry> pageEntries = hasNext ? entries.subList(0, size) : entries;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Entry last = pageEntries.get(pageEntries.size() - 1);
+            nextCursor = cursor.next(FileCursor.toEpochNanos(last.getCreatedAt()), last.getSize(),
+                    last.getFilename()).encode();
+        }
+
+        return FileListing.builder()
+                .files(toFileInfos(userId, pageEntries))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Arşive (ZIP) eklenecek dosyaları bul
+     * @param userId Kullanıcı ID
+     * @param fileIds Listelemedeki dosya ID'leri; boşsa arama sonucundaki veya kullanıcının tüm dosyaları
+     * @param search Arama metni (opsiyonel)
+     * @return Saklanan dosya adları (listelemedeki varsayılan sırayla)
+     */
+    public List<String> findStoredNames(UUID userId, Collection<String> fileIds, String search) {
+        Set<String> ids = new HashSet<>(fileIds);
+        return readEntries(userId, ids.isEmpty() ? search : null).stream()
+                .filter(entry -> ids.isEmpty() || ids.contains(entry.getFilename().split("_")[0]))
+                .sorted(getComparator(Sort.unsorted()))
+                .map(Entry::getFilename)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Kullanıcının dosya kayıtlarını indeksten getir (dosya başına sistem çağrısı yapılmaz)
+     * @param userId Kullanıcı ID
+     * @param search Arama metni (orijinal dosya adında, trigram indeksi ile aranır)
+     * @return Sıralanmamış dosya kayıtları
+     */
+    private List<Entry> readEntries(UUID userId, String search) {
+        if (search != null && !search.isBlank()) {
+            return fileNameSearchIndex.search(userId, search);
+        }
+        return fileIndexService.entries(userId);
+    }
+    
+    /**
+     * Dosya kayıtlarını API'nin dosya bilgisi formatına dönüştür
+     * @param userId Kullanıcı ID
+     * @param entries Dosya kayıtları
+     * @return Dosya bilgileri
+     */
+    private List<Map<String, Object>> toFileInfos(UUID userId, List<Entry> entries) {
+        List<Map<String, Object>> filesList = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            String filename = entry.getFilename();
             
-            // Kullanıcı dizini yoksa sıfır döndür
-            if (!Files.exists(userDir)) {
-                return 0;
+            // Orijinal dosya adını al (UUID kısmını çıkar)
+            String originalName = filename;
+            if (filename.contains("_")) {
+                originalName = filename.substring(filename.indexOf('_') + 1);
             }
             
-            try (Stream<Path> filesStream = Files.list(userDir)) {
-                return filesStream
-                    .filter(path -> {
-                        try {
-                            // Sadece dosyaları filtrele
-                            if (!Files.isRegularFile(path)) {
-                                return false;
-                            }
-                            
-                            // Arama metni varsa dosya adında ara
-                            if (search != null && !search.isEmpty()) {
-                                return path.getFileName().toString().toLowerCase()
-                                    .contains(search.toLowerCase());
-                            }
-                            
-                            return true;
-                        } catch (Exception e) {
-                            return false;
-                        }
-                    })
-                    .count();
-            }
-        } catch (IOException e) {
-            log.error("Dosya sayma hatası", e);
-            throw new FileStorageException("Dosyaları sayarken hata oluştu", e);
+            // Dosya bilgilerini topla
+            Map<String, Object> fileInfo = new HashMap<>();
+            fileInfo.put("id", filename.split("_")[0]);  // UUID kısmı
+            fileInfo.put("filename", filename);
+            fileInfo.put("originalName", originalName);
+            fileInfo.put("size", entry.getSize());
+            fileInfo.put("contentType", entry.getContentType());
+            fileInfo.put("uploadDate", entry.getCreatedAt().toString());
+            fileInfo.put("isPublic", false);  // Varsayılan olarak dosyalar özel
+            fileInfo.put("ownerId", userId.toString());
+            filesList.add(fileInfo);
         }
+        return filesList;
     }
     
     /**
      * Dosya sıralama için sıralayıcı oluştur
      * @param sort Sıralama kriterleri
-     * @return Dosya yolu sıralayıcısı
+     * @return Dosya kaydı sıralayıcısı
      */
-    private Comparator<Path> getComparator(org.springframework.data.domain.Sort sort) {
+    private Comparator<Entry> getComparator(Sort sort) {
+        Comparator<Entry> byName = Comparator.comparing(Entry::getFilename);
         if (sort.isUnsorted()) {
             // Varsayılan olarak oluşturma tarihine göre azalan sıralama
-            return (p1, p2) -> {
-                try {
-                    BasicFileAttributes attr1 = Files.readAttributes(p1, BasicFileAttributes.class);
-                    BasicFileAttributes attr2 = Files.readAttributes(p2, BasicFileAttributes.class);
-                    return attr2.creationTime().compareTo(attr1.creationTime());
-                } catch (IOException e) {
-                    return 0;
-                }
-            };
+            return Comparator.comparing(Entry::getCreatedAt).thenComparing(byName).reversed();
         }
         
         // Dosya özelliklerine göre sıralama
-        return (p1, p2) -> {
-            try {
-                for (org.springframework.data.domain.Sort.Order order : sort) {
-                    int result = 0;
-                    
-                    switch (order.getProperty()) {
-                        case "filename":
-                            result = p1.getFileName().toString().compareTo(p2.getFileName().toString());
-                            break;
-                        case "size":
-                            result = Long.compare(Files.size(p1), Files.size(p2));
-                            break;
-                        case "uploadDate":
-                            BasicFileAttributes attr1 = Files.readAttributes(p1, BasicFileAttributes.class);
-                            BasicFileAttributes attr2 = Files.readAttributes(p2, BasicFileAttributes.class);
-                            result = attr1.creationTime().compareTo(attr2.creationTime());
-                            break;
-                        default:
-                            continue;
-                    }
-                    
-                    return order.isAscending() ? result : -result;
-                }
-                
-                return 0;
-            } catch (IOException e) {
-                return 0;
+        Comparator<Entry> comparator = null;
+        boolean lastAscending = false;
+        for (Sort.Order order : sort) {
+            Comparator<Entry> next;
+            switch (order.getProperty()) {
+                case "filename":
+                case "originalName":
+                    next = byName;
+                    break;
+                case "size":
+                    next = Comparator.comparingLong(Entry::getSize);
+                    break;
+                case "uploadDate":
+                case "uploadedAt":
+                    next = Comparator.comparing(Entry::getCreatedAt);
+                    break;
+                default:
+                    continue;
             }
-        };
+            lastAscending = order.isAscending();
+            next = lastAscending ? next : next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        
+        if (comparator == null) {
+            return Comparator.comparing(Entry::getCreatedAt).thenComparing(byName).reversed();
+        }
+        // Eşit değerlerde sıranın kararlı olması için dosya adı son kriterdir
+        return comparator.thenComparing(lastAscending ? byName : byName.reversed());
     }
     
     /**
-     * Dosya uzantısını alma
-     * @param filename Dosya adı
-     * @return Dosya uzantısı
+     * İmlecin (değer, dosya adı) ikilisine göre sıralayıcı oluştur
+     * @param cursor İmleç
+     * @return Dosya kaydı sıralayıcısı
      */
-    private String getFileExtension(String filename) {
-        if (filename == null || filename.isEmpty() || !filename.contains(".")) {
-            return "";
-        }
-        return filename.substring(filename.lastIndexOf("."));
+    private Comparator<Entry> getCursorComparator(FileCursor cursor) {
+        Comparator<Entry> comparator = cursor.isSortedBySize()
+                ? Comparator.comparingLong(Entry::getSize)
+                : Comparator.comparing(Entry::getCreatedAt);
+        comparator = comparator.thenComparing(Entry::getFilename);
+        return cursor.isAscending() ? comparator : comparator.reversed();
     }
     
-    /**
-     * Dosya türünü (MIME türü) alma
-     * @param path Dosya yolu
-     * @return MIME türü
-     */
-    private String getContentType(Path path) {
-        try {
-            return Files.probeContentType(path);
-        } catch (IOException e) {
-            // Fallback: Uzantıya göre basit MIME türü tahmini
-            String extension = getFileExtension(path.getFileName().toString()).toLowerCase();
-            switch (extension) {
-                case ".jpg":
-                case ".jpeg":
-                    return "image/jpeg";
-                case ".png":
-                    return "image/png";
-                case ".gif":
-                    return "image/gif";
-                case ".pdf":
-                    return "application/pdf";
-                case ".txt":
-                    return "text/plain";
-                case ".html":
-                    return "text/html";
-                case ".json":
-                    return "application/json";
-                default:
-                    return "application/octet-stream";
-            }
-        }
+    private static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(0, epochNanos);
     }
     
     /**
@@ -391,4 +828,4 @@ public class FileStorageService {
             return FileType.PDF;
         }
     }
-} 
\ No newline at end of file
+}
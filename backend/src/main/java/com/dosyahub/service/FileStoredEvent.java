@@ -0,0 +1,16 @@
+package com.dosyahub.service;
+
+import com.dosyahub.model.FileMetadata;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bir dosyanın içeriği saklanıp metadata kaydı oluşturulduktan sonra yayınlanır.
+ * Yükleme sonrası arka plan işleri (küçük resim, önizleme) bu olayı dinler; yükleme isteği onları beklemez.
+ */
+@Getter
+@RequiredArgsConstructor
+public class FileStoredEvent {
+
+    private final FileMetadata metadata;
+}
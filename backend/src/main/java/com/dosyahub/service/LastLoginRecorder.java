@@ -0,0 +1,96 @@
+package com.dosyahub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Son giriş zamanlarının gecikmeli (write-behind) yazımı.
+ * Girişte sadece bellekteki tampon güncellenir; aynı kullanıcının ardışık girişleri tek kayda indirgenir ve
+ * tampon belirli aralıklarla tek bir JDBC toplu UPDATE ile yazılır. Yazım entity üzerinden yapılmadığı için
+ * updated_at değişmez. Uygulama kapanırken kalan kayıtlar yazılır.
+ */
+@Component
+@Slf4j
+public class LastLoginRecorder {
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET last_login_at = ? WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    // Kullanıcı ID -> henüz yazılmamış en son giriş zamanı
+    private final Map<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate,
+                             @Value("${security.last-login.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Kullanıcının giriş zamanını tampona ekle
+     * @param userId Kullanıcı ID
+     * @param loginAt Giriş zamanı
+     */
+    public void record(UUID userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    /**
+     * Tampondaki giriş zamanlarını veritabanına yaz. Yazılamayan kayıtlar bir sonraki denemeye kalır.
+     */
+    @Scheduled(fixedDelayString = "${security.last-login.flush-interval:PT30S}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+        for (UUID userId : pending.keySet()) {
+            LocalDateTime loginAt = pending.remove(userId);
+            if (loginAt == null) {
+                continue;
+            }
+            Timestamp timestamp = Timestamp.valueOf(loginAt);
+            batch.add(new Object[]{timestamp, userId, timestamp});
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            log.debug("{} kullanıcının son giriş zamanı yazıldı", batch.size());
+        } catch (RuntimeException e) {
+            // Bu arada daha yeni bir giriş kaydedildiyse o korunur
+            for (Object[] row : batch) {
+                record((UUID) row[1], ((Timestamp) row[0]).toLocalDateTime());
+            }
+            log.warn("Son giriş zamanları yazılamadı, bir sonraki denemede tekrar denenecek ({} kayıt)", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
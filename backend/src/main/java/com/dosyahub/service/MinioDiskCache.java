@@ -0,0 +1,394 @@
+package com.dosyahub.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * MinIO nesneleri için düğüm üzerindeki disk önbelleği.
+ * Yüklenen içerik yazılırken (write-through), indirilen içerik ise ilk tam okumada (read-through) yerel diske kopyalanır;
+ * sonraki indirmeler MinIO'ya gitmeden yerel dosyadan sunulur. Toplam boyut max-bytes ile
+ * sınırlıdır, taşan dosyalar en az kullanılanlardan başlanarak silinir. İçerik adresli nesneler değişmediği için
+ * önbellekteki kopya geçersiz kalmaz; nesne silinince önbellekten de silinir.
+ * İsabet/ıska sayıları "cache.*{cache=minioDiskCache}", bayt sayıları "dosyahub.minio.disk-cache.*" olarak yayınlanır.
+ */
+@Component
+@ConditionalOnProperty(name = "minio.enabled", havingValue = "true")
+@Slf4j
+public class MinioDiskCache {
+
+    private static final String CACHE_NAME = "minioDiskCache";
+    private static final String TEMP_DIR = "tmp";
+
+    private final boolean enabled;
+    private final boolean writeThrough;
+    private final long maxObjectSize;
+    private final Path cacheDir;
+    // Anahtar: nesne adının özeti, değer: dosya boyutu
+    private final Cache<String, Long> entries;
+
+    private final Counter hitBytes;
+    private final Counter missBytes;
+    private final Counter filledBytes;
+
+    public MinioDiskCache(@Value("${minio.disk-cache.enabled:false}") boolean enabled,
+                          @Value("${minio.disk-cache.dir:cache/minio}") String dir,
+                          @Value("${minio.disk-cache.max-bytes:10GB}") DataSize maxBytes,
+                          @Value("${minio.disk-cache.max-object-size:256MB}") DataSize maxObjectSize,
+                          @Value("${minio.disk-cache.write-through:true}") boolean writeThrough,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.writeThrough = writeThrough;
+        this.maxObjectSize = maxObjectSize.toBytes();
+        this.cacheDir = Paths.get(dir);
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((String key, Long size) -> (int) Math.min(size, Integer.MAX_VALUE))
+                // Dosya, kaydı önbellekten çıktığı anda silinir; aynı anahtarın yeniden yazılan dosyası etkilenmez
+                .executor(Runnable::run)
+                .removalListener((String key, Long size, RemovalCause cause) -> {
+                    if (key != null && cause != RemovalCause.REPLACED) {
+                        deleteQuietly(getPath(key));
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+        Gauge.builder("dosyahub.minio.disk-cache.size", entries,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Disk önbelleğindeki dosyaların toplam boyutu")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.hitBytes = Counter.builder("dosyahub.minio.disk-cache.requested")
+                .description("İndirilen nesnelerin boyutu (önbellekte bulunan/bulunmayan)")
+                .baseUnit("bytes")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missBytes = Counter.builder("dosyahub.minio.disk-cache.requested")
+                .description("İndirilen nesnelerin boyutu (önbellekte bulunan/bulunmayan)")
+                .baseUnit("bytes")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.filledBytes = Counter.builder("dosyahub.minio.disk-cache.filled")
+                .description("Önbelleğe yazılan bayt")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        if (enabled) {
+            load();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isWriteThrough() {
+        return enabled && writeThrough;
+    }
+
+    /**
+     * Nesnenin önbellekteki yerel dosyasını getir
+     * @param objectName MinIO nesne adı
+     * @param size Nesne boyutu (bayt metrikleri için)
+     * @return Önbellekteyse yerel dosya
+     */
+    public Optional<Path> get(String objectName, long size) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = toKey(objectName);
+        Path file = getPath(key);
+        if (entries.getIfPresent(key) != null && Files.exists(file)) {
+            hitBytes.increment(size);
+            return Optional.of(file);
+        }
+        missBytes.increment(size);
+        return Optional.empty();
+    }
+
+    /**
+     * Önbellekteki dosyanın bir bölümünü konumlu olarak aç
+     * @param file Yerel dosya
+     * @param offset Başlangıç konumu
+     * @param length Okunacak bayt sayısı
+     * @return Sadece istenen aralığı döndüren akış
+     */
+    public InputStream open(Path file, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            return new BoundedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * MinIO'dan okunan akışı okundukça önbelleğe de yaz. Akış sonuna kadar okunursa dosya önbelleğe eklenir,
+     * yarıda kapatılırsa (istemci bağlantıyı keserse) geçici dosya silinir.
+     * @param objectName MinIO nesne adı
+     * @param size Nesne boyutu
+     * @param source MinIO'dan gelen tam içerik akışı
+     * @return İçerik akışı
+     */
+    public InputStream readThrough(String objectName, long size, InputStream source) {
+        if (!enabled || size > maxObjectSize) {
+            return source;
+        }
+        Fill fill;
+        try {
+            fill = startFill();
+        } catch (IOException e) {
+            log.warn("Disk önbelleği dosyası oluşturulamadı: {}", objectName, e);
+            return source;
+        }
+        return new FilterInputStream(new TeeInputStream(source, fill.output)) {
+            private boolean finished;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b < 0) {
+                    finish();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n < 0) {
+                    finish();
+                }
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!finished) {
+                        finished = true;
+                        fill.discard();
+                    }
+                }
+            }
+
+            private void finish() {
+                if (!finished) {
+                    finished = true;
+                    fill.commit(objectName);
+                }
+            }
+        };
+    }
+
+    /**
+     * Yüklenen içeriği önbelleğe kopyalamak için geçici dosya aç (write-through)
+     * @param size İçerik boyutu (bilinmiyorsa -1; yazım sınırı aşınca kendiliğinden iptal olur)
+     * @return Önbellek yazımı (içerik bitince commit, hata olursa discard çağrılmalı); kapalıysa veya içerik
+     *         önbelleğe alınamayacak kadar büyükse null
+     */
+    Fill startWriteThrough(long size) {
+        if (!isWriteThrough() || size > maxObjectSize) {
+            return null;
+        }
+        try {
+            return startFill();
+        } catch (IOException e) {
+            log.warn("Disk önbelleği dosyası oluşturulamadı", e);
+            return null;
+        }
+    }
+
+    private Fill startFill() throws IOException {
+        Path tempDir = cacheDir.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path tempFile = tempDir.resolve(UUID.randomUUID() + ".tmp");
+        return new Fill(tempFile, new BufferedOutputStream(Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW)));
+    }
+
+    /**
+     * Nesneyi önbellekten sil
+     * @param objectName MinIO nesne adı
+     */
+    public void evict(String objectName) {
+        if (enabled) {
+            entries.invalidate(toKey(objectName));
+        }
+    }
+
+    /**
+     * Başlangıçta diskte kalan önbellek dosyalarını yeniden dizinle (eskiden yeniye)
+     */
+    private void load() {
+        try {
+            Files.createDirectories(cacheDir);
+            Path tempDir = cacheDir.resolve(TEMP_DIR);
+            if (Files.isDirectory(tempDir)) {
+                try (Stream<Path> temps = Files.list(tempDir)) {
+                    temps.forEach(MinioDiskCache::deleteQuietly);
+                }
+            }
+
+            List<Path> files = new ArrayList<>();
+            try (Stream<Path> walk = Files.walk(cacheDir, 2)) {
+                walk.filter(Files::isRegularFile)
+                        .filter(path -> !path.getParent().equals(tempDir))
+                        .forEach(files::add);
+            }
+            files.sort(Comparator.comparing(MinioDiskCache::lastModified));
+            for (Path file : files) {
+                entries.put(file.getFileName().toString(), Files.size(file));
+            }
+            log.info("MinIO disk önbelleği yüklendi: {} ({} dosya)", cacheDir.toAbsolutePath(), files.size());
+        } catch (IOException e) {
+            log.warn("MinIO disk önbelleği yüklenemedi: {}", cacheDir.toAbsolutePath(), e);
+        }
+    }
+
+    private Path getPath(String key) {
+        return cacheDir.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static String toKey(String objectName) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectName.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Önbellek dosyası silinemedi: {}", file, e);
+        }
+    }
+
+    /**
+     * Önbelleğe yazılmakta olan içerik
+     */
+    final class Fill {
+        private final Path tempFile;
+        private final OutputStream file;
+        private volatile boolean failed;
+        private long written;
+
+        // Önbellek dosyasına yazılamazsa (disk dolu vb.) hata yutulur; yükleme veya indirme etkilenmez
+        final OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                if (failed) {
+                    return;
+                }
+                // Boyutu önceden bilinmeyen içerik sınırı aşınca yazım bırakılır, diskte yer tutulmaz
+                if (written + length > maxObjectSize) {
+                    failed = true;
+                    log.debug("İçerik önbellek sınırını aştı, önbelleğe yazılmayacak: {}", tempFile);
+                    discard();
+                    return;
+                }
+                try {
+                    file.write(buffer, offset, length);
+                    written += length;
+                } catch (IOException e) {
+                    failed = true;
+                    log.warn("Disk önbelleği dosyasına yazılamadı: {}", tempFile, e);
+                }
+            }
+        };
+
+        private Fill(Path tempFile, OutputStream file) {
+            this.tempFile = tempFile;
+            this.file = file;
+        }
+
+        /**
+         * Yazılan içeriği nesne adıyla önbelleğe ekle. Hata önbelleğe yazımı iptal eder, çağıranı etkilemez.
+         * @param objectName MinIO nesne adı
+         */
+        void commit(String objectName) {
+            try {
+                file.close();
+                long size = Files.size(tempFile);
+                if (failed || size > maxObjectSize) {
+                    discard();
+                    return;
+                }
+                String key = toKey(objectName);
+                Path file = getPath(key);
+                Files.createDirectories(file.getParent());
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                entries.put(key, size);
+                filledBytes.increment(size);
+            } catch (IOException e) {
+                log.warn("Disk önbelleğine yazılamadı: {}", objectName, e);
+                discard();
+            }
+        }
+
+        void discard() {
+            try {
+                file.close();
+            } catch (IOException e) {
+                log.debug("Önbellek dosyası kapatılamadı: {}", tempFile, e);
+            }
+            deleteQuietly(tempFile);
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package com.dosyahub.service;
 
 import com.dosyahub.model.FileMetadata;
+import com.dosyahub.model.StoredBlob;
 import com.dosyahub.model.FileType;
 import com.dosyahub.model.User;
+import com.dosyahub.model.dto.FileCursor;
+import com.dosyahub.model.dto.FileListing;
+import com.dosyahub.model.dto.FileMetadataDto;
+import com.dosyahub.model.dto.PresignedUrl;
 import com.dosyahub.repository.FileMetadataRepository;
 import com.dosyahub.repository.UserRepository;
 import io.minio.*;
 import io.minio.errors.*;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import io.minio.messages.Item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.input.TeeInputStream;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -21,17 +36,27 @@ import javax.annotation.PostConstruct;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.time.ZonedDateTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 @Service
 @ConditionalOnProperty(name = "minio.enabled", havingValue = "true")
@@ -39,13 +64,34 @@ import java.util.stream.StreamSupport;
 @Slf4j
 public class MinioStorageService {
 
+    // Parçalı yüklemelerin geçici parça nesnelerinin ön eki
+    private static final String CHUNK_PREFIX = ".uploads";
+    // İçerik adresli nesnelerin (blobs/<özetin ilk iki karakteri>/<özet>) ve özet hesaplanırken kullanılan geçici nesnelerin ön ekleri
+    private static final String BLOB_PREFIX = "blobs";
+    private static final String STAGING_PREFIX = ".staging";
+    // Arşiv için dosya kayıtları okunurken tek sorguda getirilen kayıt sayısı
+    private static final int ARCHIVE_PAGE_SIZE = 500;
+
     private final MinioClient minioClient;
     private final FileMetadataRepository fileMetadataRepository;
     private final UserRepository userRepository;
+    private final FileListingCache fileListingCache;
+    private final StoredBlobService storedBlobService;
+    private final MinioDiskCache diskCache;
+    private final SmallObjectCache smallObjectCache;
+    private final StorageCompression storageCompression;
+    private final DerivedObjectStore derivedObjectStore;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${minio.bucket-name}")
     private String bucketName;
 
+    @Value("${storage.upload.part-size:10485760}")
+    private long uploadPartSize;
+
+    @Value("${minio.presigned-url-expiry:15m}")
+    private Duration presignedUrlExpiry;
+
     @PostConstruct
     public void init() {
         try {
@@ -73,160 +119,768 @@ public class MinioStorageService {
                 throw new RuntimeException("Yüklenecek dosya boş");
             }
 
-            String originalFilename = file.getOriginalFilename();
-            String objectName = userId + "/" + UUID.randomUUID() + "_" + originalFilename;
+            User user = userRepository.getReferenceById(userId);
+            String objectName = registerStoredObject(storeContent(user, file.getOriginalFilename(),
+                    file.getContentType(), file.getInputStream(), file.getSize())).getStoredFilename();
+            log.info("Dosya MinIO'ya kaydedildi: {}", objectName);
+
+            return objectName;
+        } catch (Exception e) {
+            log.error("MinIO dosya yükleme hatası", e);
+            throw new RuntimeException("Dosya yükleme sırasında hata oluştu", e);
+        }
+    }
+
+    /**
+     * Akışlı dosya yükleme: boyutu bilinmeyen içerik parça parça (multipart upload) MinIO'ya aktarılır,
+     * bellekte en fazla bir parça tutulur ve diske ara kopya yazılmaz
+     * @param userId Kullanıcı ID
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @param inputStream Dosya içeriği (istek gövdesinden doğrudan okunur)
+     * @return Saklanan dosya adı (kullanıcı ID ve UUID ile)
+     */
+    public String storeFile(UUID userId, String originalFilename, String contentType, InputStream inputStream) {
+        try {
+            User user = userRepository.getReferenceById(userId);
+            String objectName = registerStoredObject(storeContent(user, originalFilename, contentType,
+                    inputStream, -1)).getStoredFilename();
+            log.info("Dosya MinIO'ya akışla kaydedildi: {}", objectName);
 
-            // MinIO'ya dosyayı yükle
+            return objectName;
+        } catch (Exception e) {
+            log.error("MinIO akışlı dosya yükleme hatası", e);
+            throw new RuntimeException("Dosya yükleme sırasında hata oluştu", e);
+        }
+    }
+
+    /**
+     * İçeriği yüklerken SHA-256 özetini hesapla ve içerik adresli olarak sakla.
+     * İçerik geçici bir nesneye yazılır; aynı özetle saklanan içerik varsa geçici nesne silinir ve sadece
+     * metadata kaydedilir, yoksa geçici nesne sunucu tarafında (copyObject) kalıcı anahtarına kopyalanır.
+     * Sıkıştırılabilir içerik {@link StorageCompression} politikasına göre sıkıştırılarak yazılır; özet ve boyut
+     * her zaman çözülmüş içeriğe aittir.
+     * @param user Kullanıcı
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @param inputStream Dosya içeriği
+     * @param size Dosya boyutu (bilinmiyorsa -1)
+     * @return Henüz kaydedilmemiş metadata ({@link #registerStoredObject(FileMetadata)} ile kaydedilir)
+     */
+    private FileMetadata storeContent(User user, String originalFilename, String contentType,
+                                      InputStream inputStream, long size) throws Exception {
+        String objectName = user.getId() + "/" + UUID.randomUUID() + "_" + originalFilename;
+        String stagingObject = STAGING_PREFIX + "/" + UUID.randomUUID();
+
+        DigestInputStream digestStream = StoredBlobService.digesting(inputStream);
+        // Disk önbelleği açıksa içerik MinIO'ya gönderilirken yerel kopyası da yazılır
+        MinioDiskCache.Fill cacheFill = diskCache.startWriteThrough(size);
+        CountingInputStream countingStream = new CountingInputStream(
+                cacheFill != null ? new TeeInputStream(digestStream, cacheFill.output) : digestStream);
+        boolean cached = false;
+        String storageCodec;
+        CountingInputStream storedStream;
+        try {
+            StorageCompression.Encoded encoded = storageCompression.encode(contentType, countingStream);
+            storageCodec = encoded.storageCodec;
+            storedStream = new CountingInputStream(encoded.stream);
+            // Sıkıştırılan içeriğin boyutu önceden bilinmez, parça parça yüklenir
+            long objectSize = storageCodec != null ? -1 : size;
             minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(bucketName)
-                            .object(objectName)
-                            .stream(file.getInputStream(), file.getSize(), -1)
-                            .contentType(file.getContentType())
+                            .object(stagingObject)
+                            .stream(storedStream, objectSize, objectSize < 0 ? uploadPartSize : -1)
+                            .contentType(contentType)
                             .build()
             );
+        } catch (Exception e) {
+            if (cacheFill != null) {
+                cacheFill.discard();
+            }
+            throw e;
+        }
 
-            log.info("Dosya MinIO'ya kaydedildi: {}", objectName);
+        try {
+            long contentSize = countingStream.getByteCount();
+            if (contentSize == 0) {
+                throw new RuntimeException("Yüklenecek dosya boş");
+            }
 
-            User user = userRepository.findById(userId).orElseThrow();
-            FileMetadata metadata = FileMetadata.builder()
-                .user(user)
-                .originalFilename(originalFilename)
-                .storedFilename(objectName)
-                .contentType(file.getContentType())
-                .fileType(getFileTypeFromContentType(file.getContentType()))
-                .size(file.getSize())
-                .bucketName(bucketName)
-                .build();
-            fileMetadataRepository.save(metadata);
+            String contentHash = StoredBlobService.hex(digestStream);
+            // İçerik zaten saklanıyorsa mevcut nesnenin kodlaması geçerlidir
+            StoredBlob blob = storedBlobService.acquire(bucketName, contentHash, contentSize, storageCodec,
+                    storedStream.getByteCount(), () ->
+                    minioClient.copyObject(
+                            CopyObjectArgs.builder()
+                                    .bucket(bucketName)
+                                    .object(getBlobObjectName(contentHash))
+                                    .source(CopySource.builder().bucket(bucketName).object(stagingObject).build())
+                                    .build()
+                    ));
+            if (blob.getRefCount() > 1) {
+                log.info("Aynı içerik zaten saklanıyor, sadece metadata kaydedildi: {} ({})", objectName, contentHash);
+            } else if (blob.getStorageCodec() != null) {
+                log.info("İçerik sıkıştırılarak saklandı: {} ({} -> {} bayt)", objectName, contentSize, blob.getStoredSize());
+            }
+            if (cacheFill != null) {
+                cacheFill.commit(getBlobObjectName(contentHash));
+                cached = true;
+            }
 
-            return objectName;
+            FileMetadata metadata = buildMetadata(user, objectName, originalFilename, contentType, contentSize, contentHash);
+            metadata.setStorageCodec(blob.getStorageCodec());
+            metadata.setStoredSize(blob.getStoredSize());
+            return metadata;
+        } finally {
+            if (cacheFill != null && !cached) {
+                cacheFill.discard();
+            }
+            try {
+                minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(stagingObject).build());
+            } catch (Exception e) {
+                log.warn("Geçici nesne silinemedi: {}", stagingObject, e);
+            }
+        }
+    }
+
+    /**
+     * Toplu yükleme için dosya içeriğini sakla; metadata kaydı {@link #registerStoredObjects(List)} ile
+     * tüm dosyalar için tek seferde yapılır
+     * @param user Kullanıcı
+     * @param file Yüklenecek dosya
+     * @return Henüz kaydedilmemiş metadata
+     */
+    public FileMetadata storeFileContent(User user, MultipartFile file) {
+        try {
+            if (file.isEmpty()) {
+                throw new RuntimeException("Yüklenecek dosya boş");
+            }
+            return storeContent(user, file.getOriginalFilename(), file.getContentType(), file.getInputStream(), file.getSize());
         } catch (Exception e) {
-            log.error("MinIO dosya yükleme hatası", e);
+            log.error("MinIO dosya yükleme hatası: {}", file.getOriginalFilename(), e);
             throw new RuntimeException("Dosya yükleme sırasında hata oluştu", e);
         }
     }
 
     /**
-     * Dosya indirme - Tam dosya adı ile
-     * @param objectName MinIO'daki nesne adı
-     * @return Dosya içerik akışı
+     * İçerikleri saklanmış dosyaların metadata kayıtlarını tek JDBC toplu işleminde (batch) kaydet
+     * @param metadataList Kaydedilecek metadata listesi
+     * @return Kaydedilen metadata listesi
      */
-    public InputStream getFileAsStream(String objectName) {
+    public List<FileMetadata> registerStoredObjects(List<FileMetadata> metadataList) {
         try {
-            // Dosya adını tam yola çevirelim
-            String fullObjectName = objectName;
-            
-            // Eğer objectName zaten userId/ ile başlamıyorsa, kullanıcı ID'sini öne ekleyelim
-            if (!objectName.contains("/")) {
-                // Mevcut dosyayı bul
-                FileMetadata metadata = fileMetadataRepository.findByStoredFilename(objectName)
-                    .orElseGet(() -> {
-                        // Doğrudan bulunamadıysa, dosya adının UUID_originalFilename formatında olduğunu varsay
-                        if (objectName.contains("_")) {
-                            // UUID kısmını al
-                            String uuidPart = objectName.substring(0, objectName.indexOf('_'));
-                            try {
-                                // UUID formatını doğrula
-                                UUID.fromString(uuidPart);
-                                // Veritabanında ara
-                                List<FileMetadata> matchingFiles = fileMetadataRepository.findByStoredFilenameContaining(objectName);
-                                return matchingFiles.isEmpty() ? null : matchingFiles.get(0);
-                            } catch (IllegalArgumentException e) {
-                                // UUID formatı değilse boş dön
-                                return null;
-                            }
-                        }
-                        return null;
-                    });
-                
-                if (metadata != null && metadata.getUser() != null) {
-                    String userId = metadata.getUser().getId().toString();
-                    fullObjectName = userId + "/" + objectName;
-                    log.info("Tam dosya adı oluşturuldu: {}", fullObjectName);
-                } else {
-                    log.warn("Dosya veritabanında bulunamadı, doğrudan erişim denenecek: {}", objectName);
+            List<FileMetadata> saved = fileMetadataRepository.saveAll(metadataList);
+            metadataList.stream().map(m -> m.getUser().getId()).distinct().forEach(fileListingCache::invalidate);
+            saved.forEach(metadata -> eventPublisher.publishEvent(new FileStoredEvent(metadata)));
+            return saved;
+        } catch (RuntimeException e) {
+            metadataList.forEach(this::releaseContent);
+            throw e;
+        }
+    }
+
+    /**
+     * Metadata kaydının içeriğinin bulunduğu nesne adı
+     * @param metadata Dosya kaydı
+     * @return Tekilleştirilmiş içerikte paylaşılan nesne, diğerlerinde stored_filename
+     */
+    private String getObjectName(FileMetadata metadata) {
+        return metadata.getContentHash() != null
+                ? getBlobObjectName(metadata.getContentHash())
+                : metadata.getStoredFilename();
+    }
+
+    private String getBlobObjectName(String contentHash) {
+        return BLOB_PREFIX + "/" + contentHash.substring(0, 2) + "/" + contentHash;
+    }
+
+    /**
+     * Parçalı yüklemenin tek parçasını geçici nesne olarak kaydet
+     * @param uploadId Yükleme oturumu ID
+     * @param index Parça sırası
+     * @param length Parçanın beklenen uzunluğu
+     * @param inputStream Parça içeriği
+     */
+    public void writeChunk(UUID uploadId, int index, long length, InputStream inputStream) {
+        try {
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(getChunkObjectName(uploadId, index))
+                            .stream(inputStream, length, -1)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("MinIO parça yükleme hatası: oturum={}, parça={}", uploadId, index, e);
+            throw new RuntimeException("Parça yükleme sırasında hata oluştu", e);
+        }
+    }
+
+    /**
+     * Parçaları sunucu tarafında (composeObject) tek nesnede birleştir, metadata kaydet ve parçaları sil.
+     * Veri istemci ile MinIO arasında tekrar taşınmaz.
+     * @param userId Kullanıcı ID
+     * @param uploadId Yükleme oturumu ID
+     * @param totalChunks Parça sayısı
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @param size Dosyanın toplam boyutu
+     * @return Saklanan dosya adı (kullanıcı ID ve UUID ile)
+     */
+    public String completeChunkedUpload(UUID userId, UUID uploadId, int totalChunks,
+                                        String originalFilename, String contentType, long size) {
+        String objectName = userId + "/" + UUID.randomUUID() + "_" + originalFilename;
+        try {
+            List<ComposeSource> sources = new ArrayList<>(totalChunks);
+            for (int i = 0; i < totalChunks; i++) {
+                sources.add(ComposeSource.builder().bucket(bucketName).object(getChunkObjectName(uploadId, i)).build());
+            }
+
+            Map<String, String> headers = new HashMap<>();
+            if (contentType != null) {
+                headers.put("Content-Type", contentType);
+            }
+            minioClient.composeObject(
+                    ComposeObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .sources(sources)
+                            .headers(headers)
+                            .build()
+            );
+            log.info("Parçalı yükleme MinIO'da birleştirildi: {} ({} parça)", objectName, totalChunks);
+
+            registerStoredObject(userId, objectName, originalFilename, contentType, size, null);
+        } catch (Exception e) {
+            log.error("MinIO parça birleştirme hatası: oturum={}", uploadId, e);
+            throw new RuntimeException("Parçalı yükleme tamamlanamadı", e);
+        }
+
+        abortChunkedUpload(uploadId, totalChunks);
+        return objectName;
+    }
+
+    /**
+     * Parçalı yüklemenin geçici parça nesnelerini sil
+     * @param uploadId Yükleme oturumu ID
+     * @param totalChunks Parça sayısı
+     */
+    public void abortChunkedUpload(UUID uploadId, int totalChunks) {
+        List<DeleteObject> chunks = new ArrayList<>(totalChunks);
+        for (int i = 0; i < totalChunks; i++) {
+            chunks.add(new DeleteObject(getChunkObjectName(uploadId, i)));
+        }
+        // removeObjects tembel çalışır, sonuçlar okunmadan silme isteği gönderilmez
+        for (Result<DeleteError> result : minioClient.removeObjects(
+                RemoveObjectsArgs.builder().bucket(bucketName).objects(chunks).build())) {
+            try {
+                DeleteError error = result.get();
+                log.warn("Parça nesnesi silinemedi: {} ({})", error.objectName(), error.message());
+            } catch (Exception e) {
+                log.warn("Parça nesneleri silinirken hata oluştu: oturum={}", uploadId, e);
+            }
+        }
+    }
+
+    /**
+     * Oturumu artık bellekte olmayan (ör. sunucu yeniden başlatıldığında kalan) eski parça nesnelerini sil
+     * @param threshold Bu andan önce yazılmış parçalar silinir
+     * @param activeUploads Açık oturumların ID'leri; bunların parçalarına dokunulmaz
+     * @return Silinen parça nesnesi sayısı
+     */
+    public int removeStaleChunks(Instant threshold, Set<UUID> activeUploads) {
+        List<DeleteObject> stale = new ArrayList<>();
+        try {
+            Iterable<Result<Item>> results = minioClient.listObjects(
+                    ListObjectsArgs.builder()
+                            .bucket(bucketName)
+                            .prefix(CHUNK_PREFIX + "/")
+                            .recursive(true)
+                            .build()
+            );
+            for (Result<Item> result : results) {
+                Item item = result.get();
+                // Nesne adı: .uploads/<oturum ID>/<parça sırası>
+                String[] parts = item.objectName().split("/");
+                if (parts.length != 3 || !item.lastModified().toInstant().isBefore(threshold)) {
+                    continue;
+                }
+                try {
+                    if (!activeUploads.contains(UUID.fromString(parts[1]))) {
+                        stale.add(new DeleteObject(item.objectName()));
+                    }
+                } catch (IllegalArgumentException e) {
+                    log.debug("Tanınmayan parça nesnesi atlandı: {}", item.objectName());
                 }
-            } else {
-                log.info("Tam dosya yolu zaten mevcut: {}", fullObjectName);
             }
-            
-            // MinIO'dan dosyayı getir
-            return minioClient.getObject(
-                    GetObjectArgs.builder()
+        } catch (Exception e) {
+            log.warn("Eski parça nesneleri listelenemedi", e);
+            return 0;
+        }
+
+        int removed = stale.size();
+        if (!stale.isEmpty()) {
+            for (Result<DeleteError> result : minioClient.removeObjects(
+                    RemoveObjectsArgs.builder().bucket(bucketName).objects(stale).build())) {
+                try {
+                    DeleteError error = result.get();
+                    log.warn("Parça nesnesi silinemedi: {} ({})", error.objectName(), error.message());
+                    removed--;
+                } catch (Exception e) {
+                    log.warn("Eski parça nesneleri silinirken hata oluştu", e);
+                }
+            }
+        }
+        return removed;
+    }
+
+    private String getChunkObjectName(UUID uploadId, int index) {
+        return String.format("%s/%s/%05d", CHUNK_PREFIX, uploadId, index);
+    }
+
+    /**
+     * Yüklenen nesnenin metadata kaydını oluştur ve listeleme önbelleğini geçersiz kıl
+     * @param userId Kullanıcı ID
+     * @param objectName MinIO'daki nesne adı
+     * @param originalFilename Orijinal dosya adı
+     * @param contentType İçerik tipi
+     * @param size Dosya boyutu
+     * @param contentHash İçerik özeti (içerik adresli saklanmıyorsa null)
+     * @return Kaydedilen metadata
+     */
+    private FileMetadata registerStoredObject(UUID userId, String objectName, String originalFilename,
+                                              String contentType, long size, String contentHash) {
+        User user = userRepository.getReferenceById(userId);
+        return registerStoredObject(buildMetadata(user, objectName, originalFilename, contentType, size, contentHash));
+    }
+
+    /**
+     * Metadata kaydını oluştur ve listeleme önbelleğini geçersiz kıl. Kayıt başarısız olursa içerik referansı bırakılır.
+     * @param metadata Kaydedilecek metadata
+     * @return Kaydedilen metadata
+     */
+    private FileMetadata registerStoredObject(FileMetadata metadata) {
+        try {
+            FileMetadata saved = fileMetadataRepository.save(metadata);
+            fileListingCache.invalidate(metadata.getUser().getId());
+            eventPublisher.publishEvent(new FileStoredEvent(saved));
+            return saved;
+        } catch (RuntimeException e) {
+            releaseContent(metadata);
+            throw e;
+        }
+    }
+
+    private FileMetadata buildMetadata(User user, String objectName, String originalFilename,
+                                       String contentType, long size, String contentHash) {
+        return FileMetadata.builder()
+            .user(user)
+            .originalFilename(originalFilename)
+            .storedFilename(objectName)
+            .contentType(contentType)
+            .fileType(getFileTypeFromContentType(contentType))
+            .size(size)
+            .bucketName(bucketName)
+            .contentHash(contentHash)
+            .build();
+    }
+
+    /**
+     * Kaydedilemeyen dosyanın paylaşılan içerik referansını geri bırak
+     * @param metadata Kaydedilemeyen metadata
+     */
+    private void releaseContent(FileMetadata metadata) {
+        String contentHash = metadata.getContentHash();
+        if (contentHash != null) {
+            String blobObject = getBlobObjectName(contentHash);
+            storedBlobService.release(bucketName, contentHash, () -> {
+                minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(blobObject).build());
+                diskCache.evict(blobObject);
+            });
+        }
+    }
+
+    /**
+     * İstemcinin dosyayı doğrudan MinIO'ya yükleyebileceği kısa ömürlü imzalı PUT adresi oluştur.
+     * Yükleme bittikten sonra {@link #completePresignedUpload(UUID, String, Predicate)} ile metadata kaydedilir.
+     * @param userId Kullanıcı ID
+     * @param originalFilename Orijinal dosya adı
+     * @return İmzalı yükleme adresi ve nesne adı
+     */
+    public PresignedUrl createPresignedUpload(UUID userId, String originalFilename) {
+        String objectName = userId + "/" + UUID.randomUUID() + "_" + originalFilename;
+        return presign(Method.PUT, objectName, null);
+    }
+
+    /**
+     * İmzalı adresle yüklenen nesneyi doğrulayıp metadata kaydını oluştur. Aynı nesne için tekrar çağrılırsa
+     * mevcut kayıt korunur.
+     * @param userId Kullanıcı ID
+     * @param objectName İmzalı adres oluşturulurken verilen nesne adı
+     * @param allowedContentType Kabul edilen içerik tipleri; uymayan nesne silinir
+     * @return Dosyanın metadata kaydı
+     */
+    public FileMetadata completePresignedUpload(UUID userId, String objectName, Predicate<String> allowedContentType) {
+        String prefix = userId + "/";
+        if (objectName == null || !objectName.startsWith(prefix) || objectName.indexOf('/', prefix.length()) >= 0) {
+            throw new IllegalArgumentException("Geçersiz nesne adı");
+        }
+        Optional<FileMetadata> existing = fileMetadataRepository.findByStoredFilename(objectName);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        String storedName = objectName.substring(prefix.length());
+        int separator = storedName.indexOf('_');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Geçersiz nesne adı");
+        }
+
+        StatObjectResponse stat;
+        try {
+            stat = minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(objectName).build());
+        } catch (ErrorResponseException e) {
+            throw new IllegalArgumentException("Nesne henüz yüklenmemiş: " + objectName, e);
+        } catch (Exception e) {
+            log.error("MinIO nesne bilgisi alınamadı: {}", objectName, e);
+            throw new RuntimeException("Yükleme doğrulanamadı", e);
+        }
+
+        if (stat.size() == 0 || !allowedContentType.test(stat.contentType())) {
+            // İmzalı adres içerik tipini kısıtlamaz, kurala uymayan nesne depoda bırakılmaz
+            try {
+                minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(objectName).build());
+            } catch (Exception e) {
+                log.warn("Reddedilen nesne silinemedi: {}", objectName, e);
+            }
+            throw new IllegalArgumentException(stat.size() == 0
+                    ? "Yüklenen dosya boş"
+                    : "Desteklenmeyen dosya formatı: " + stat.contentType());
+        }
+        log.info("İmzalı adresle yüklenen dosya kaydedildi: {} ({} bayt)", objectName, stat.size());
+        return registerStoredObject(userId, objectName, storedName.substring(separator + 1),
+                stat.contentType(), stat.size(), null);
+    }
+
+    /**
+     * Kullanıcının dosyası için kısa ömürlü imzalı indirme adresi oluştur
+     * @param userId Kullanıcı ID
+     * @param fileName Dosya ID'si veya adı (userId/UUID_dosyaAdı veya UUID_dosyaAdı)
+     * @return İmzalı indirme adresi
+     */
+    public PresignedUrl createPresignedDownload(UUID userId, String fileName) {
+        FileMetadata metadata = findMetadata(userId, fileName)
+                .orElseThrow(() -> new IllegalArgumentException("Dosya bulunamadı: " + fileName));
+
+        Map<String, String> queryParams = new HashMap<>();
+        queryParams.put("response-content-disposition", "attachment; filename*=UTF-8''"
+                + URLEncoder.encode(metadata.getOriginalFilename(), StandardCharsets.UTF_8).replace("+", "%20"));
+        if (metadata.getStorageCodec() != null) {
+            // Sıkıştırılmış saklanan içeriği tarayıcı çözer
+            queryParams.put("response-content-encoding", metadata.getStorageCodec());
+        }
+        PresignedUrl presignedUrl = presign(Method.GET, getObjectName(metadata), queryParams);
+        presignedUrl.setObjectName(metadata.getStoredFilename());
+        return presignedUrl;
+    }
+
+    private PresignedUrl presign(Method method, String objectName, Map<String, String> queryParams) {
+        try {
+            Instant expiresAt = Instant.now().plus(presignedUrlExpiry);
+            String url = minioClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(method)
                             .bucket(bucketName)
-                            .object(fullObjectName)
+                            .object(objectName)
+                            .expiry((int) presignedUrlExpiry.getSeconds(), TimeUnit.SECONDS)
+                            .extraQueryParams(queryParams)
                             .build()
             );
+            return PresignedUrl.builder()
+                    .objectName(objectName)
+                    .url(url)
+                    .method(method.name())
+                    .expiresAt(expiresAt)
+                    .build();
         } catch (Exception e) {
+            log.error("MinIO imzalı adres oluşturma hatası: {}", objectName, e);
+            throw new RuntimeException("İmzalı adres oluşturulamadı", e);
+        }
+    }
+
+    /**
+     * Dosya indirme
+     * @param userId Kullanıcı ID
+     * @param fileName Dosya ID'si veya adı (userId/UUID_dosyaAdı veya UUID_dosyaAdı)
+     * @return Dosya içerik akışı
+     */
+    public InputStream getFileAsStream(UUID userId, String fileName) {
+        try {
+            // Tekilleştirilmiş dosyaların içeriği paylaşılan nesnededir; disk önbelleğindeyse yerel kopya okunur
+            return getFileContent(userId, fileName).open();
+        } catch (IOException e) {
             log.error("MinIO dosya indirme hatası: {}", e.getMessage(), e);
             throw new RuntimeException("Dosya indirme sırasında hata oluştu", e);
         }
     }
 
     /**
-     * Dosya silme
-     * @param objectName MinIO'daki nesne adı
+     * Dosyanın boyut ve sürüm bilgilerini al; içerik istenen aralıklar için ayrı ayrı okunur
+     * @param userId Kullanıcı ID
+     * @param fileName Dosya ID'si veya adı (userId/UUID_dosyaAdı veya UUID_dosyaAdı)
+     * @return Aralıklı okunabilen dosya içeriği
      */
-    public void deleteFile(String objectName) {
+    public FileContent getFileContent(UUID userId, String fileName) {
+        // Sık istenen küçük nesneler bellekten, veritabanına ve MinIO'ya gitmeden sunulur
+        Optional<FileContent> cached = smallObjectCache.get(userId, fileName);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         try {
-            // Dosya adından kullanıcı ID'yi çıkar (UUID formatında olabilir)
-            // Bu kontrolü sadece güvenlik için yapıyoruz
-            String userId = null;
-            String fullObjectName = objectName;
-            
-            // Eğer objectName zaten userId/ ile başlamıyorsa, kullanıcı ID'sini öne ekleyelim
-            if (!objectName.contains("/")) {
-                // Mevcut dosyayı bul
-                FileMetadata metadata = fileMetadataRepository.findByStoredFilename(objectName)
-                    .orElseGet(() -> {
-                        // Doğrudan bulunamadıysa, dosya adının UUID_originalFilename formatında olduğunu varsay
-                        if (objectName.contains("_")) {
-                            // UUID kısmını al
-                            String uuidPart = objectName.substring(0, objectName.indexOf('_'));
-                            try {
-                                // UUID formatını doğrula
-                                UUID.fromString(uuidPart);
-                                // Veritabanında ara
-                                List<FileMetadata> matchingFiles = fileMetadataRepository.findByStoredFilenameContaining(objectName);
-                                return matchingFiles.isEmpty() ? null : matchingFiles.get(0);
-                            } catch (IllegalArgumentException e) {
-                                // UUID formatı değilse boş dön
-                                return null;
-                            }
-                        }
-                        return null;
-                    });
-                
-                if (metadata != null && metadata.getUser() != null) {
-                    userId = metadata.getUser().getId().toString();
-                    fullObjectName = userId + "/" + objectName;
-                    log.info("Tam dosya adı oluşturuldu: {}", fullObjectName);
-                } else {
-                    log.warn("Dosya veritabanında bulunamadı, doğrudan silme denenecek: {}", objectName);
-                }
-            } else {
-                log.info("Tam dosya adı zaten mevcut: {}", fullObjectName);
+            Optional<FileMetadata> metadata = findMetadata(userId, fileName);
+            String fullObjectName = metadata.map(FileMetadata::getStoredFilename)
+                    .orElseGet(() -> toObjectName(userId, fileName));
+            String contentObject = metadata.map(this::getObjectName).orElse(fullObjectName);
+
+            FileContent.FileContentBuilder content = FileContent.builder();
+
+            // Özet ve yükleme zamanı kayıtta varsa nesneye istek atılmaz; koşullu istekler depoya gitmeden yanıtlanır
+            Optional<FileMetadata> hashed = metadata.filter(m -> m.getContentHash() != null && m.getUploadedAt() != null);
+            if (hashed.isPresent()) {
+                FileMetadata m = hashed.get();
+                content
+                        .size(m.getSize())
+                        .lastModified(m.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant())
+                        .eTag("\"" + m.getContentHash() + "\"")
+                        .contentType(m.getContentType());
+                return smallObjectCache.readThrough(userId, fileName, fullObjectName,
+                        withContentSource(content, contentObject, m.getSize(), m.getStorageCodec(), m.getStoredSize()));
             }
 
-            // MinIO'dan dosyayı sil
-            minioClient.removeObject(
-                    RemoveObjectArgs.builder()
+            StatObjectResponse stat = minioClient.statObject(
+                    StatObjectArgs.builder().bucket(bucketName).object(contentObject).build());
+            Instant lastModified = metadata.map(FileMetadata::getUploadedAt)
+                    .map(uploadedAt -> uploadedAt.atZone(ZoneId.systemDefault()).toInstant())
+                    .orElse(stat.lastModified().toInstant());
+            content
+                    .size(stat.size())
+                    .lastModified(lastModified)
+                    .eTag("\"" + stat.etag() + "\"")
+                    .contentType(metadata.map(FileMetadata::getContentType).orElse(stat.contentType()));
+            // Özeti olmayan eski kayıtlar ve kaydı olmayan nesneler hiçbir zaman sıkıştırılmış değildir
+            return smallObjectCache.readThrough(userId, fileName, fullObjectName,
+                    withContentSource(content, contentObject, stat.size(), null, null));
+        } catch (Exception e) {
+            log.error("MinIO dosya bilgisi alınamadı: {}", e.getMessage(), e);
+            throw new RuntimeException("Dosya indirme sırasında hata oluştu", e);
+        }
+    }
+
+    /**
+     * İçeriğin okunacağı yeri belirle: disk önbelleğindeyse yerel dosya,
+     * değilse MinIO. MinIO'dan yapılan tam okumalar okundukça önbelleğe yazılır; önbellekte içerik çözülmüş tutulur.
+     * Sıkıştırılmış saklanan içeriğin depodaki hali ayrıca {@link FileContent#getEncoded()} olarak sunulur.
+     * @param content Boyut ve sürüm bilgileri doldurulmuş içerik
+     * @param contentObject İçeriğin bulunduğu nesne
+     * @param size Çözülmüş içeriğin boyutu
+     * @param storageCodec İçeriğin depodaki kodlaması (kodlanmamışsa null)
+     * @param storedSize Kodlanmış içeriğin depodaki boyutu
+     * @return Dosya içeriği
+     */
+    private FileContent withContentSource(FileContent.FileContentBuilder content, String contentObject, long size,
+                                          String storageCodec, Long storedSize) {
+        if (storageCodec != null) {
+            FileContent decoded = content.build();
+            String eTag = decoded.getETag();
+            content.encoded(decoded.toBuilder()
+                    .size(storedSize)
+                    .eTag(eTag.substring(0, eTag.length() - 1) + "-" + storageCodec + "\"")
+                    .contentEncoding(storageCodec)
+                    .reader((offset, length) -> getObjectRange(contentObject, offset, length))
+                    .build());
+        }
+
+        FileContent.RangeReader remote;
+        if (storageCodec != null) {
+            remote = (offset, length) -> {
+                InputStream decoded = storageCompression.decode(storageCodec,
+                        getObjectRange(contentObject, 0, storedSize));
+                if (offset == 0 && length == size) {
+                    return diskCache.readThrough(contentObject, size, decoded);
+                }
+                // Sıkıştırılmış içerikte aralığın başına ancak baştan çözerek gelinir
+                try {
+                    IOUtils.skipFully(decoded, offset);
+                } catch (IOException e) {
+                    decoded.close();
+                    throw e;
+                }
+                return new BoundedInputStream(decoded, length);
+            };
+        } else {
+            remote = (offset, length) -> offset == 0 && length == size
+                    ? diskCache.readThrough(contentObject, size, getObjectRange(contentObject, offset, length))
+                    : getObjectRange(contentObject, offset, length);
+        }
+
+        Optional<Path> cached = diskCache.get(contentObject, size);
+        if (cached.isEmpty()) {
+            return content.reader(remote).build();
+        }
+        // Önbellek dosyası sendfile için verilmez (file boş kalır): Tomcat dosyayı yanıt başlıkları gönderildikten
+        // sonra açar ve arada tahliye edilirse yanıt yarıda kalır. Açılmış kanal ise tahliyeden etkilenmez;
+        // dosya açılmadan önce tahliye edildiyse MinIO'dan okunur.
+        Path file = cached.get();
+        return content
+                .reader((offset, length) -> {
+                    try {
+                        return diskCache.open(file, offset, length);
+                    } catch (NoSuchFileException e) {
+                        return remote.open(offset, length);
+                    }
+                })
+                .build();
+    }
+
+    private InputStream getObjectRange(String contentObject, long offset, long length) throws IOException {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
                             .bucket(bucketName)
-                            .object(fullObjectName)
+                            .object(contentObject)
+                            .offset(offset)
+                            .length(length)
                             .build()
             );
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("MinIO aralıklı okuma hatası: " + contentObject, e);
+        }
+    }
+
+    /**
+     * Arşive (ZIP) eklenecek dosyaları bul. Tüm hesap veya arama sonucu istendiğinde kayıtlar imleçle
+     * sayfa sayfa okunur, tablo tek sorguda belleğe alınmaz.
+     * @param userId Kullanıcı ID
+     * @param fileIds Dosya ID'leri; boşsa arama sonucundaki veya kullanıcının tüm dosyaları
+     * @param search Arama metni (opsiyonel)
+     * @return Tam nesne adları
+     */
+    public List<String> findObjectNames(UUID userId, Collection<String> fileIds, String search) {
+        if (!fileIds.isEmpty()) {
+            List<UUID> ids = fileIds.stream().map(UUID::fromString).collect(Collectors.toList());
+            return fileMetadataRepository.findAllById(ids).stream()
+                    .filter(metadata -> metadata.getUser() != null && userId.equals(metadata.getUser().getId()))
+                    .map(FileMetadata::getStoredFilename)
+                    .collect(Collectors.toList());
+        }
+
+        Sort sort = Sort.by(Sort.Direction.DESC, FileCursor.UPLOAD_DATE);
+        List<String> objectNames = new ArrayList<>();
+        List<FileMetadataDto> rows = fileMetadataRepository
+                .findListing(userId, PageRequest.of(0, ARCHIVE_PAGE_SIZE, sort), search).getContent();
+        while (!rows.isEmpty()) {
+            rows.forEach(row -> objectNames.add(row.getStoredFilename()));
+            if (rows.size() < ARCHIVE_PAGE_SIZE) {
+                break;
+            }
+            FileMetadataDto last = rows.get(rows.size() - 1);
+            FileCursor cursor = FileCursor.after(sort, FileCursor.toEpochNanos(last.getUploadedAt()),
+                    last.getSize(), last.getId().toString());
+            rows = fileMetadataRepository.findListingAfter(userId, cursor, search, ARCHIVE_PAGE_SIZE);
+        }
+        return objectNames;
+    }
+
+    /**
+     * Kullanıcının dosya kaydını tek sorguda bul: dosya ID'si birincil anahtardan, dosya adı stored_filename
+     * üzerindeki tekil indeksten aranır
+     * @param userId Kullanıcı ID
+     * @param fileName Dosya ID'si veya adı (userId/UUID_dosyaAdı veya UUID_dosyaAdı)
+     * @return Dosya kaydı (varsa)
+     */
+    private Optional<FileMetadata> findMetadata(UUID userId, String fileName) {
+        Optional<UUID> fileId = parseFileId(fileName);
+        if (fileId.isPresent()) {
+            return fileMetadataRepository.findByIdAndUserId(fileId.get(), userId);
+        }
+        return fileMetadataRepository.findByStoredFilename(toObjectName(userId, fileName))
+                .filter(metadata -> metadata.getUser() != null && userId.equals(metadata.getUser().getId()));
+    }
+
+    /**
+     * Dosya adını kullanıcının klasöründeki tam nesne adına çevir
+     * @param userId Kullanıcı ID
+     * @param fileName Dosya adı (userId/ öneki olabilir veya olmayabilir)
+     * @return Tam nesne adı
+     */
+    private String toObjectName(UUID userId, String fileName) {
+        String prefix = userId + "/";
+        if (fileName.startsWith(prefix)) {
+            return fileName;
+        }
+        // Başka bir kullanıcının klasöründeki nesnelere erişilemez
+        if (fileName.contains("/")) {
+            throw new IllegalArgumentException("Dosya bulunamadı: " + fileName);
+        }
+        return prefix + fileName;
+    }
+
+    private Optional<UUID> parseFileId(String fileName) {
+        try {
+            return Optional.of(UUID.fromString(fileName));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Dosya silme
+     * @param userId Kullanıcı ID
+     * @param fileName Dosya ID'si veya adı (userId/UUID_dosyaAdı veya UUID_dosyaAdı)
+     */
+    public void deleteFile(UUID userId, String fileName) {
+        try {
+            Optional<FileMetadata> stored = findMetadata(userId, fileName);
+            if (stored.isEmpty() && parseFileId(fileName).isPresent()) {
+                throw new IllegalArgumentException("Dosya bulunamadı: " + fileName);
+            }
+            // Kaydı olmayan eski nesneler doğrudan kullanıcının klasöründen silinir
+            String fullObjectName = stored.map(FileMetadata::getStoredFilename)
+                    .orElseGet(() -> toObjectName(userId, fileName));
+            String contentHash = stored.map(FileMetadata::getContentHash).orElse(null);
+            
+            // MinIO'dan dosyayı sil (paylaşılan içerik, referans sayısı sıfırlanınca aşağıda silinir)
+            if (contentHash == null) {
+                minioClient.removeObject(
+                        RemoveObjectArgs.builder()
+                                .bucket(bucketName)
+                                .object(fullObjectName)
+                                .build()
+                );
+                diskCache.evict(fullObjectName);
+            }
             log.info("Dosya silindi: {}", fullObjectName);
+            smallObjectCache.invalidate(fullObjectName);
             
             // Veritabanı kaydını sil
-            fileMetadataRepository.findByStoredFilename(objectName)
-                .ifPresent(fileMetadataRepository::delete);
+            stored.ifPresent(fileMetadataRepository::delete);
             
-            // Eğer tam yol ile kaydedilmişse o kaydı da sil
-            if (!objectName.equals(fullObjectName)) {
-                fileMetadataRepository.findByStoredFilename(fullObjectName)
-                    .ifPresent(fileMetadataRepository::delete);
+            // Türetilen içerikler (küçük resim vb.) paylaşılan içerikle birlikte silinir
+            if (contentHash != null) {
+                String blobObject = getBlobObjectName(contentHash);
+                storedBlobService.release(bucketName, contentHash, () -> {
+                    minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(blobObject).build());
+                    diskCache.evict(blobObject);
+                    derivedObjectStore.delete(contentHash);
+                });
+            } else {
+                stored.map(DerivedObjectStore::keyOf).ifPresent(derivedObjectStore::delete);
             }
+            
+            fileListingCache.invalidate(userId);
         } catch (Exception e) {
             log.error("Dosya silme hatası", e);
             throw new RuntimeException("Dosya silme sırasında hata oluştu", e);
@@ -234,75 +888,40 @@ public class MinioStorageService {
     }
 
     /**
-     * Kullanıcının dosyalarını listeleme (sayfalama ve sıralama ile)
+     * Kullanıcının dosyalarını listeleme (sayfalama ve sıralama ile).
+     * Liste MinIO taranmadan file_metadata tablosundan oluşturulur; sayfa ve (gerekirse) toplam sayı ayrı sorgularla okunur.
      * @param userId Kullanıcı ID
      * @param pageable Sayfalama ve sıralama bilgileri
      * @param search Arama metni (dosya adında arama)
-     * @return Dosya bilgileri listesi
+     * @return Sayfadaki dosya bilgileri ve toplam dosya sayısı
      */
-    public List<Map<String, Object>> listFiles(UUID userId, Pageable pageable, String search) {
+    public FileListing listFiles(UUID userId, Pageable pageable, String search) {
+        return fileListingCache.get(userId, pageable, search, () -> queryFiles(userId, pageable, search));
+    }
+
+    /**
+     * Sayfalı listeyi önbelleğe bakmadan oluştur
+     */
+    private FileListing queryFiles(UUID userId, Pageable pageable, String search) {
         try {
-            String prefix = userId + "/";
-            Iterable<Result<Item>> results = minioClient.listObjects(
-                    ListObjectsArgs.builder()
-                            .bucket(bucketName)
-                            .prefix(prefix)
-                            .recursive(true)
-                            .build()
-            );
+            Page<FileMetadataDto> page = fileMetadataRepository.findListing(userId, pageable, search);
 
-            // Sonuçları bir listeye dönüştür ve filtrele
-            List<Map<String, Object>> filesList = StreamSupport.stream(results.spliterator(), false)
-                    .map(result -> {
-                        try {
-                            return result.get();
-                        } catch (Exception e) {
-                            log.error("MinIO dosya bilgisi okuma hatası", e);
-                            return null;
-                        }
-                    })
-                    .filter(item -> item != null)
-                    .filter(item -> {
-                        // Dosyaları filtrele
-                        String objectName = item.objectName();
-                        
-                        // Arama metni varsa dosya adında ara
-                        if (search != null && !search.isEmpty()) {
-                            return objectName.toLowerCase().contains(search.toLowerCase());
-                        }
-                        
-                        return true;
-                    })
-                    .map(item -> {
-                        // Dosya bilgilerini bir Map olarak döndür
-                        Map<String, Object> fileInfo = new HashMap<>();
-                        String fileName = item.objectName().substring(prefix.length()); // kullanıcı ID kısmını çıkar
-                        
-                        // UUID kısmını ve orijinal dosya adını ayır
-                        String uuid = "";
-                        String originalName = fileName;
-                        if (fileName.contains("_")) {
-                            uuid = fileName.substring(0, fileName.indexOf('_'));
-                            originalName = fileName.substring(fileName.indexOf('_') + 1);
-                        }
-                        
-                        fileInfo.put("id", uuid);
-                        fileInfo.put("filename", item.objectName());
-                        fileInfo.put("originalName", originalName);
-                        fileInfo.put("size", item.size());
-                        fileInfo.put("contentType", getContentTypeFromFileName(originalName));
-                        fileInfo.put("uploadDate", item.lastModified().toString());
-                        fileInfo.put("isPublic", false);  // Varsayılan olarak özel
-                        fileInfo.put("ownerId", userId.toString());
-                        
-                        return fileInfo;
-                    })
-                    .sorted(getComparator(pageable.getSort())) // Sıralama
-                    .skip(pageable.getOffset()) // Sayfalama
-                    .limit(pageable.getPageSize())
+            List<Map<String, Object>> filesList = page.getContent().stream()
+                    .map(this::toFileInfo)
                     .collect(Collectors.toList());
 
-            return filesList;
+            String nextCursor = null;
+            if (page.hasNext() && FileCursor.supports(pageable.getSort())) {
+                FileMetadataDto last = page.getContent().get(page.getNumberOfElements() - 1);
+                nextCursor = FileCursor.after(pageable.getSort(), FileCursor.toEpochNanos(last.getUploadedAt()),
+                        last.getSize(), last.getId().toString()).encode();
+            }
+
+            return FileListing.builder()
+                    .files(filesList)
+                    .totalCount(page.getTotalElements())
+                    .nextCursor(nextCursor)
+                    .build();
         } catch (Exception e) {
             log.error("MinIO dosya listeleme hatası", e);
             throw new RuntimeException("Dosya listeleme sırasında hata oluştu", e);
@@ -310,43 +929,43 @@ public class MinioStorageService {
     }
 
     /**
-     * Kullanıcı dosyalarının sayısını sayma
+     * Kullanıcının dosyalarını imleçten itibaren listeleme (keyset sayfalama)
      * @param userId Kullanıcı ID
-     * @param search Arama metni
-     * @return Dosya sayısı
+     * @param cursor Önceki sayfanın son kaydını gösteren imleç
+     * @param search Arama metni (dosya adında arama)
+     * @param size Sayfa başına dosya sayısı
+     * @return Sayfadaki dosya bilgileri ve varsa sonraki sayfanın imleci
      */
-    public long countFiles(UUID userId, String search) {
+    public FileListing listFilesAfter(UUID userId, FileCursor cursor, String search, int size) {
+        return fileListingCache.get(userId, cursor, search, size, () -> queryFilesAfter(userId, cursor, search, size));
+    }
+
+    /**
+     * İmleçli listeyi önbelleğe bakmadan oluştur
+     */
+    private FileListing queryFilesAfter(UUID userId, FileCursor cursor, String search, int size) {
         try {
-            String prefix = userId + "/";
-            Iterable<Result<Item>> results = minioClient.listObjects(
-                    ListObjectsArgs.builder()
-                            .bucket(bucketName)
-                            .prefix(prefix)
-                            .recursive(true)
-                            .build()
-            );
+            // Sonraki sayfa olup olmadığını anlamak için bir kayıt fazla istenir
+            List<FileMetadataDto> rows = fileMetadataRepository.findListingAfter(userId, cursor, search, size + 1);
+            boolean hasNext = rows.size() > size;
+            if (hasNext) {
+                rows = rows.subList(0, size);
+            }
+
+            String nextCursor = null;
+            if (hasNext) {
+                FileMetadataDto last = rows.get(rows.size() - 1);
+                nextCursor = cursor.next(FileCursor.toEpochNanos(last.getUploadedAt()),
+                        last.getSize(), last.getId().toString()).encode();
+            }
 
-            // Sonuçları say
-            return StreamSupport.stream(results.spliterator(), false)
-                    .map(result -> {
-                        try {
-                            return result.get();
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
-                    .filter(item -> item != null)
-                    .filter(item -> {
-                        // Arama metni varsa dosya adında ara
-                        if (search != null && !search.isEmpty()) {
-                            return item.objectName().toLowerCase().contains(search.toLowerCase());
-                        }
-                        return true;
-                    })
-                    .count();
+            return FileListing.builder()
+                    .files(rows.stream().map(this::toFileInfo).collect(Collectors.toList()))
+                    .nextCursor(nextCursor)
+                    .build();
         } catch (Exception e) {
-            log.error("MinIO dosya sayma hatası", e);
-            throw new RuntimeException("Dosya sayma sırasında hata oluştu", e);
+            log.error("MinIO dosya listeleme hatası", e);
+            throw new RuntimeException("Dosya listeleme sırasında hata oluştu", e);
         }
     }
 
@@ -379,94 +998,21 @@ public class MinioStorageService {
     }
     
     /**
-     * Dosya sıralama için sıralayıcı oluştur
-     * @param sort Sıralama kriterleri
-     * @return Dosya bilgisi sıralayıcısı
+     * Metadata kaydını API'nin dosya bilgisi formatına dönüştür
+     * @param file Dosya metadata bilgisi
+     * @return Dosya bilgisi
      */
-    private Comparator<Map<String, Object>> getComparator(Sort sort) {
-        if (sort.isUnsorted()) {
-            // Varsayılan olarak yükleme tarihine göre azalan sıralama
-            return (f1, f2) -> {
-                String date1 = (String) f1.get("uploadDate");
-                String date2 = (String) f2.get("uploadDate");
-                return date2.compareTo(date1); // Azalan sırada
-            };
-        }
-        
-        // Dosya özelliklerine göre sıralama
-        return (f1, f2) -> {
-            for (Sort.Order order : sort) {
-                int result = 0;
-                String property = order.getProperty();
-                
-                // Özelliğe göre sıralama
-                if (f1.containsKey(property) && f2.containsKey(property)) {
-                    Object val1 = f1.get(property);
-                    Object val2 = f2.get(property);
-                    
-                    if (val1 instanceof String && val2 instanceof String) {
-                        result = ((String) val1).compareTo((String) val2);
-                    } else if (val1 instanceof Number && val2 instanceof Number) {
-                        result = Double.compare(((Number) val1).doubleValue(), ((Number) val2).doubleValue());
-                    }
-                }
-                
-                if (result != 0) {
-                    return order.isAscending() ? result : -result;
-                }
-            }
-            
-            return 0;
-        };
-    }
-    
-    /**
-     * Dosya adından MIME türünü tahmin et
-     * @param fileName Dosya adı
-     * @return MIME türü
-     */
-    private String getContentTypeFromFileName(String fileName) {
-        if (fileName == null || fileName.isEmpty() || !fileName.contains(".")) {
-            return "application/octet-stream";
-        }
-        
-        String extension = fileName.substring(fileName.lastIndexOf(".")).toLowerCase();
-        switch (extension) {
-            case ".jpg":
-            case ".jpeg":
-                return "image/jpeg";
-            case ".png":
-                return "image/png";
-            case ".gif":
-                return "image/gif";
-            case ".pdf":
-                return "application/pdf";
-            case ".txt":
-                return "text/plain";
-            case ".html":
-                return "text/html";
-            case ".json":
-                return "application/json";
-            case ".doc":
-            case ".docx":
-                return "application/msword";
-            case ".xls":
-            case ".xlsx":
-                return "application/vnd.ms-excel";
-            case ".ppt":
-            case ".pptx":
-                return "application/vnd.ms-powerpoint";
-            case ".zip":
-                return "application/zip";
-            case ".rar":
-                return "application/x-rar-compressed";
-            case ".mp3":
-                return "audio/mpeg";
-            case ".mp4":
-                return "video/mp4";
-            default:
-                return "application/octet-stream";
-        }
+    private Map<String, Object> toFileInfo(FileMetadataDto file) {
+        Map<String, Object> fileInfo = new HashMap<>();
+        fileInfo.put("id", file.getId().toString());
+        fileInfo.put("filename", file.getStoredFilename());
+        fileInfo.put("originalName", file.getOriginalFilename());
+        fileInfo.put("size", file.getSize());
+        fileInfo.put("contentType", file.getContentType());
+        fileInfo.put("uploadDate", file.getUploadedAt() != null ? file.getUploadedAt().toString() : null);
+        fileInfo.put("isPublic", false);  // Varsayılan olarak özel
+        fileInfo.put("ownerId", file.getUserId().toString());
+        return fileInfo;
     }
     
     /**
@@ -0,0 +1,139 @@
+package com.dosyahub.service;
+
+import com.dosyahub.model.FileMetadata;
+import com.dosyahub.model.FileType;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * PDF dosyalarının ilk sayfasının düşük çözünürlüklü (en uzun kenarı preview-size) JPEG önizlemesi.
+ * Her belge için bellek ve süre bütçesi uygulanır: ayrıştırma preview-max-memory kadar bellek, fazlası için
+ * preview-max-storage'a kadar geçici dosya kullanır; preview-timeout dolduğunda okunan akış ve belge kapatılır,
+ * çizim bir sonraki içerik operatöründe durdurulur ve işlem hatayla sonlanır. Tek bir operatörün işi (ör. çok büyük
+ * bir resmin çözülmesi) yarıda kesilmez, o operatör bitince durulur.
+ */
+@Component
+@Slf4j
+public class PdfPreviewDeriver implements ContentDeriver {
+
+    public static final String KIND = "preview";
+
+    private final TaskScheduler taskScheduler;
+    private final int size;
+    private final float quality;
+    private final Duration timeout;
+    private final long maxMemory;
+    private final long maxStorage;
+
+    public PdfPreviewDeriver(TaskScheduler taskScheduler,
+                             @Value("${storage.derivation.preview-size:512}") int size,
+                             @Value("${storage.derivation.preview-quality:0.75}") float quality,
+                             @Value("${storage.derivation.preview-timeout:15s}") Duration timeout,
+                             @Value("${storage.derivation.preview-max-memory:32MB}") DataSize maxMemory,
+                             @Value("${storage.derivation.preview-max-storage:256MB}") DataSize maxStorage) {
+        this.taskScheduler = taskScheduler;
+        this.size = size;
+        this.quality = quality;
+        this.timeout = timeout;
+        this.maxMemory = maxMemory.toBytes();
+        this.maxStorage = maxStorage.toBytes();
+    }
+
+    @Override
+    public String getKind() {
+        return KIND;
+    }
+
+    @Override
+    public String getContentType() {
+        return MediaType.IMAGE_JPEG_VALUE;
+    }
+
+    @Override
+    public boolean supports(FileMetadata metadata) {
+        // Bilinmeyen içerik tipleri de PDF olarak kaydedildiği için içerik tipi ayrıca kontrol edilir
+        return metadata.getFileType() == FileType.PDF
+                && MediaType.APPLICATION_PDF_VALUE.equalsIgnoreCase(metadata.getContentType());
+    }
+
+    @Override
+    public byte[] derive(InputStream content) throws IOException {
+        AtomicReference<Closeable> current = new AtomicReference<>(content);
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> watchdog = taskScheduler.schedule(() -> {
+            timedOut.set(true);
+            try {
+                current.get().close();
+            } catch (IOException e) {
+                log.debug("Süresi dolan PDF kapatılamadı", e);
+            }
+        }, Instant.now().plus(timeout));
+
+        try (PDDocument document = PDDocument.load(content, MemoryUsageSetting.setupMixed(maxMemory, maxStorage))) {
+            current.set(document);
+            if (document.getNumberOfPages() == 0) {
+                return null;
+            }
+
+            PDRectangle page = document.getPage(0).getCropBox();
+            float scale = size / Math.max(page.getWidth(), page.getHeight());
+            PDFRenderer renderer = new PDFRenderer(document) {
+                @Override
+                protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+                    return new PageDrawer(parameters) {
+                        @Override
+                        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+                            // Belgeyi kapatmak çizimi durdurmaz; süre dolunca her operatörden önce kesilir
+                            if (timedOut.get()) {
+                                throw new InterruptedIOException("Süre doldu");
+                            }
+                            super.processOperator(operator, operands);
+                        }
+                    };
+                }
+            };
+            renderer.setSubsamplingAllowed(true);
+            BufferedImage image = renderer.renderImage(0, scale, ImageType.RGB);
+            if (timedOut.get()) {
+                throw new IOException("Süre doldu");
+            }
+            return ThumbnailDeriver.writeJpeg(image, quality);
+        } catch (InvalidPasswordException e) {
+            // Parola korumalı belgelerin önizlemesi oluşturulmaz
+            return null;
+        } catch (IOException | RuntimeException e) {
+            if (timedOut.get()) {
+                throw new InterruptedIOException("PDF önizlemesi " + timeout.toSeconds() + " saniyede oluşturulamadı");
+            }
+            throw e;
+        } finally {
+            watchdog.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.dosyahub.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Küçük MinIO nesneleri (küçük resimler, simgeler) için yığın dışı (off-heap) bellek önbelleği.
+ * İçerik doğrudan (direct) ByteBuffer'larda tutulduğu için çöp toplayıcının taradığı yığını büyütmez; isabetlerde
+ * veritabanına ve depolamaya hiç gidilmez, yanıt tampondan okunur. Toplam boyut max-bytes ile sınırlıdır; Caffeine'in
+ * W-TinyLFU politikası yeni nesneleri sadece mevcutlardan daha sık istenecekse kabul eder, böylece bir kez indirilen
+ * dosyalar sık kullanılanları önbellekten atmaz.
+ * max-bytes yaklaşık bir sınırdır: tahliye edilen tamponun yerel belleği hemen değil, tampon nesnesi çöp toplayıcı
+ * tarafından toplandığında geri verilir. Bu yüzden gerçek yığın dışı kullanım geçici olarak max-bytes'ı aşabilir;
+ * -XX:MaxDirectMemorySize, max-bytes ile Tomcat ve MinIO istemcisinin tamponlarına pay bırakacak şekilde
+ * (varsayılan yapılandırmada 256m) ayarlanmalıdır. Sınıra yaklaşıldığında JVM yeni tahsisten önce çöp toplamayı
+ * tetikler.
+ * İsabet oranı ve tahliyeler "cache.*{cache=smallObjects}", bellek kullanımı "dosyahub.minio.object-cache.size"
+ * olarak yayınlanır.
+ */
+@Component
+@ConditionalOnProperty(name = "minio.enabled", havingValue = "true")
+@Slf4j
+public class SmallObjectCache {
+
+    private static final String CACHE_NAME = "smallObjects";
+
+    // Kayıt başına tahmini yığın içi ek yük (anahtar, başlıklar, tampon nesnesi)
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final boolean enabled;
+    private final long maxObjectSize;
+    // Anahtar: kullanıcı ID'si ve istemcinin indirirken kullandığı dosya ID'si veya adı
+    private final Cache<String, Entry> cache;
+
+    public SmallObjectCache(@Value("${minio.object-cache.enabled:true}") boolean enabled,
+                            @Value("${minio.object-cache.max-bytes:64MB}") DataSize maxBytes,
+                            @Value("${minio.object-cache.max-object-size:64KB}") DataSize maxObjectSize,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxObjectSize = maxObjectSize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((String key, Entry entry) -> entry.data.capacity() + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("dosyahub.minio.object-cache.size", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Küçük nesne önbelleğinin kullandığı yığın dışı bellek")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Önbellekteki nesneyi getir
+     * @param userId Kullanıcı ID
+     * @param fileName İndirme isteğindeki dosya ID'si veya adı
+     * @return Önbellekteyse bellekteki içerik
+     */
+    public Optional<FileContent> get(UUID userId, String fileName) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(key(userId, fileName))).map(Entry::toFileContent);
+    }
+
+    /**
+     * İçerik küçükse ilk tam okumada belleğe alınmasını sağla. İçerik sadece gövde gerçekten okunduğunda yüklenir,
+     * 304 yanıtları depoya gitmez.
+     * @param userId Kullanıcı ID
+     * @param fileName İndirme isteğindeki dosya ID'si veya adı
+     * @param fullObjectName Nesnenin tam adı (silmede önbellekten çıkarmak için)
+     * @param content Depodaki içerik
+     * @return Tam okumalarda önbelleği dolduran içerik
+     */
+    public FileContent readThrough(UUID userId, String fileName, String fullObjectName, FileContent content) {
+        if (!enabled || content.getSize() > maxObjectSize) {
+            return content;
+        }
+        long size = content.getSize();
+        return content.toBuilder()
+                // Yerel dosya yerine bellekteki kopya kullanılır; bu boyuttaki dosyalar zaten sendfile ile gönderilmez
+                .file(null)
+                // Küçük içerik bellekten çözülmüş olarak sunulur; sıkıştırılmış gösterim önerilmez
+                .encoded(null)
+                .reader((offset, length) -> {
+                    if (offset != 0 || length != size) {
+                        return content.open(offset, length);
+                    }
+                    ByteBuffer data = load(content);
+                    if (data == null) {
+                        return content.open(offset, length);
+                    }
+                    Entry entry = new Entry(fullObjectName, content.getLastModified(), content.getETag(),
+                            content.getContentType(), data);
+                    cache.put(key(userId, fileName), entry);
+                    return new ByteBufferInputStream(data.duplicate());
+                })
+                .build();
+    }
+
+    /**
+     * Nesneyi hangi adla istenmiş olursa olsun önbellekten çıkar
+     * @param fullObjectName Nesnenin tam adı
+     */
+    public void invalidate(String fullObjectName) {
+        if (enabled) {
+            cache.asMap().values().removeIf(entry -> entry.fullObjectName.equals(fullObjectName));
+        }
+    }
+
+    private static String key(UUID userId, String fileName) {
+        return userId + ":" + fileName;
+    }
+
+    /**
+     * İçeriği doğrudan tampona oku
+     * @param content Depodaki içerik
+     * @return Salt okunur tampon; içerik beklenen boyutta değilse null
+     */
+    private ByteBuffer load(FileContent content) throws IOException {
+        ByteBuffer data = ByteBuffer.allocateDirect((int) content.getSize());
+        try (InputStream in = content.open(); ReadableByteChannel channel = Channels.newChannel(in)) {
+            while (data.hasRemaining()) {
+                if (channel.read(data) < 0) {
+                    log.warn("Nesne beklenenden kısa, önbelleğe alınmadı: {} bayt eksik", data.remaining());
+                    return null;
+                }
+            }
+        }
+        data.flip();
+        return data.asReadOnlyBuffer();
+    }
+
+    private static final class Entry {
+        private final String fullObjectName;
+        private final Instant lastModified;
+        private final String eTag;
+        private final String contentType;
+        private final ByteBuffer data;
+
+        private Entry(String fullObjectName, Instant lastModified, String eTag, String contentType, ByteBuffer data) {
+            this.fullObjectName = fullObjectName;
+            this.lastModified = lastModified;
+            this.eTag = eTag;
+            this.contentType = contentType;
+            this.data = data;
+        }
+
+        private FileContent toFileContent() {
+            return FileContent.builder()
+                    .size(data.capacity())
+                    .lastModified(lastModified)
+                    .eTag(eTag)
+                    .contentType(contentType)
+                    .reader((offset, length) -> new ByteBufferInputStream(
+                            data.duplicate().position((int) offset).limit((int) (offset + length))))
+                    .build();
+        }
+    }
+
+    /**
+     * Tamponun kalan kısmını okuyan akış; tampon kopyalanmaz
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+    }
+}
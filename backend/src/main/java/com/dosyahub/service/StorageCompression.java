@@ -0,0 +1,132 @@
+package com.dosyahub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Depoda sıkıştırarak saklama (compression at rest) politikası.
+ * Sadece sıkıştırılabilir içerik tiplerindeki (metin, JSON, XML...) dosyalar için, içeriğin başından alınan
+ * örnek sıkıştırılıp yeterli kazanç görülürse içerik "deflate" (zlib) kodlamasıyla saklanır. Bu, HTTP'nin
+ * "deflate" içerik kodlamasıyla aynı biçimdir; kodlamayı kabul eden istemcilere içerik çözülmeden gönderilebilir.
+ * Sıkıştırılmış içerikte her aralık (Range) isteği içeriği baştan çözer; bu yüzden PDF gibi görüntüleyicilerin
+ * parça parça okuduğu tipler varsayılan listede yoktur.
+ */
+@Component
+@Slf4j
+public class StorageCompression {
+
+    public static final String DEFLATE = "deflate";
+
+    private final boolean enabled;
+    private final List<MediaType> contentTypes;
+    private final int sampleSize;
+    private final long minSize;
+    private final double maxRatio;
+
+    public StorageCompression(@Value("${storage.compression.enabled:false}") boolean enabled,
+                              @Value("${storage.compression.content-types:text/*,application/json,application/xml,application/javascript,image/svg+xml,image/bmp}") List<String> contentTypes,
+                              @Value("${storage.compression.sample-size:64KB}") DataSize sampleSize,
+                              @Value("${storage.compression.min-size:4KB}") DataSize minSize,
+                              @Value("${storage.compression.max-ratio:0.9}") double maxRatio) {
+        this.enabled = enabled;
+        this.contentTypes = contentTypes.stream().map(MediaType::parseMediaType).toList();
+        this.sampleSize = (int) sampleSize.toBytes();
+        this.minSize = minSize.toBytes();
+        this.maxRatio = maxRatio;
+    }
+
+    /**
+     * Saklanacak içeriği gerekiyorsa sıkıştır. Örnek için okunan baytlar tamponda tutulur, içerik bir kez okunur.
+     * @param contentType İçerik tipi
+     * @param inputStream Çözülmüş içerik
+     * @return Depoya yazılacak akış ve kodlaması
+     * @throws IOException Örnek okunamazsa
+     */
+    public Encoded encode(String contentType, InputStream inputStream) throws IOException {
+        if (!enabled || !isCompressible(contentType)) {
+            return new Encoded(null, inputStream);
+        }
+
+        BufferedInputStream buffered = new BufferedInputStream(inputStream, sampleSize);
+        buffered.mark(sampleSize);
+        byte[] sample = buffered.readNBytes(sampleSize);
+        buffered.reset();
+
+        // Örnek en küçük boyuttan kısaysa dosyanın tamamı küçüktür; sıkıştırma kazancı ek yükü karşılamaz
+        if (sample.length < minSize || compressedSize(sample) > sample.length * maxRatio) {
+            return new Encoded(null, buffered);
+        }
+        return new Encoded(DEFLATE, new DeflaterInputStream(buffered));
+    }
+
+    /**
+     * Depodan okunan içeriği çöz
+     * @param storageCodec İçeriğin kodlaması (kodlanmamışsa null)
+     * @param inputStream Depodaki içerik
+     * @return Çözülmüş içerik akışı
+     */
+    public InputStream decode(String storageCodec, InputStream inputStream) {
+        if (storageCodec == null) {
+            return inputStream;
+        }
+        if (DEFLATE.equals(storageCodec)) {
+            return new InflaterInputStream(inputStream);
+        }
+        throw new IllegalStateException("Desteklenmeyen depolama kodlaması: " + storageCodec);
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return contentTypes.stream().anyMatch(type -> type.includes(mediaType));
+        } catch (InvalidMediaTypeException e) {
+            log.debug("Geçersiz içerik tipi, sıkıştırılmadan saklanacak: {}", contentType);
+            return false;
+        }
+    }
+
+    private static long compressedSize(byte[] sample) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(sample);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            long size = 0;
+            while (!deflater.finished()) {
+                size += deflater.deflate(buffer);
+            }
+            return size;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Depoya yazılacak içerik
+     */
+    public static final class Encoded {
+        // Kodlama; içerik olduğu gibi saklanacaksa null
+        public final String storageCodec;
+        public final InputStream stream;
+
+        private Encoded(String storageCodec, InputStream stream) {
+            this.storageCodec = storageCodec;
+            this.stream = stream;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.dosyahub.service;
+
+import com.dosyahub.exception.FileStorageException;
+import com.dosyahub.model.StoredBlob;
+import com.dosyahub.repository.StoredBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.sql.ResultSet;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * İçerik adresli depolamanın referans sayımı. Depolama servisleri içeriği SHA-256 özetiyle saklar;
+ * bu servis aynı içeriğin kaç dosya kaydı tarafından kullanıldığını tutar ve içeriğin ne zaman
+ * yazılıp silineceğine karar verir. Fiziksel yazma/silme işlemi çağıran servise aittir.
+ */
+@Service
+@Slf4j
+public class StoredBlobService {
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public StoredBlobService(StoredBlobRepository storedBlobRepository, PlatformTransactionManager transactionManager,
+                             JdbcTemplate jdbcTemplate) {
+        this.storedBlobRepository = storedBlobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * İçeriğe bir referans ekle. İçerik henüz yoksa önce storeContent ile depoya yazılır.
+     * @param bucketName Depolama alanı (MinIO bucket adı veya "filesystem")
+     * @param contentHash İçerik özeti
+     * @param size İçerik boyutu
+     * @param storeContent İçeriği kalıcı konumuna yazan işlem (sadece içerik yeni ise çağrılır)
+     * @return İçerik zaten saklanıyorsa (tekilleştirildiyse) true
+     */
+    public boolean acquire(String bucketName, String contentHash, long size, ContentOperation storeContent) {
+        return acquire(bucketName, contentHash, size, null, size, storeContent).getRefCount() > 1;
+    }
+
+    /**
+     * Depoda kodlanarak (sıkıştırılarak) saklanan içeriğe bir referans ekle. İçerik zaten saklanıyorsa
+     * mevcut kaydın kodlaması geçerlidir; yeni yüklemenin kodlaması yok sayılır.
+     * @param bucketName Depolama alanı
+     * @param contentHash Çözülmüş içeriğin özeti
+     * @param size Çözülmüş içeriğin boyutu
+     * @param storageCodec Yeni içeriğin kodlaması (kodlanmadıysa null)
+     * @param storedSize Yeni içeriğin depodaki boyutu
+     * @param storeContent İçeriği kalıcı konumuna yazan işlem (sadece içerik yeni ise çağrılır)
+     * @return İçerik kaydı; refCount 1'den büyükse içerik tekilleştirilmiştir
+     */
+    public StoredBlob acquire(String bucketName, String contentHash, long size, String storageCodec, long storedSize,
+                              ContentOperation storeContent) {
+        try {
+            return acquireOnce(bucketName, contentHash, size, storageCodec, storedSize, storeContent);
+        } catch (DataIntegrityViolationException e) {
+            // Aynı içerik eşzamanlı olarak ilk kez yüklendi, diğer işlem kaydı oluşturdu; referans eklenerek tekrar denenir
+            log.debug("İçerik kaydı eşzamanlı oluşturuldu, tekrar deneniyor: {}", contentHash);
+            return acquireOnce(bucketName, contentHash, size, storageCodec, storedSize, storeContent);
+        }
+    }
+
+    /**
+     * İçerikten bir referans düş. Son referans da kalktıysa kayıt refCount=0 ile bırakılır ve işlem commit edildikten
+     * sonra {@link #collect} ile içerik silinir. Commit başarısız olursa içerik depoda kalır.
+     * @param bucketName Depolama alanı
+     * @param contentHash İçerik özeti
+     * @param deleteContent İçeriği depodan silen işlem
+     */
+    public void release(String bucketName, String contentHash, ContentOperation deleteContent) {
+        Boolean lastReference = transactionTemplate.execute(status -> {
+            lockContent(bucketName, contentHash);
+            Optional<StoredBlob> blob = storedBlobRepository.findByBucketNameAndContentHash(bucketName, contentHash);
+            if (blob.isEmpty() || blob.get().getRefCount() <= 0) {
+                log.warn("İçerik kaydı bulunamadı: {}/{}", bucketName, contentHash);
+                return false;
+            }
+
+            StoredBlob storedBlob = blob.get();
+            storedBlob.setRefCount(storedBlob.getRefCount() - 1);
+            storedBlobRepository.save(storedBlob);
+            return storedBlob.getRefCount() == 0;
+        });
+        if (!Boolean.TRUE.equals(lastReference)) {
+            return;
+        }
+
+        // Çağıran bir işlemin içindeyse kayıt henüz commit edilmemiştir; silme o işlemin commit'ine ertelenir
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    collect(bucketName, contentHash, deleteContent);
+                }
+            });
+        } else {
+            collect(bucketName, contentHash, deleteContent);
+        }
+    }
+
+    /**
+     * Referansı kalmayan içeriği sil. İçerik kilidi altında kayıt tekrar kontrol edilir: bu arada aynı içerik
+     * tekrar yüklendiyse (refCount > 0) silinmez. Kayıt, içerik silinmeden önce silinir; işlem commit edilemezse
+     * kayıt refCount=0 ile kalır ve içerik bir sonraki yüklemede yeniden yazılır. Depoda kalan içerik sadece yer kaplar.
+     */
+    private void collect(String bucketName, String contentHash, ContentOperation deleteContent) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                lockContent(bucketName, contentHash);
+                Optional<StoredBlob> blob = storedBlobRepository.findByBucketNameAndContentHash(bucketName, contentHash);
+                if (blob.isEmpty() || blob.get().getRefCount() > 0) {
+                    log.debug("İçerik tekrar kullanılmaya başlandı, silinmedi: {}/{}", bucketName, contentHash);
+                    return;
+                }
+                storedBlobRepository.delete(blob.get());
+                storedBlobRepository.flush();
+                try {
+                    deleteContent.run();
+                } catch (Exception e) {
+                    throw new FileStorageException("İçerik depodan silinemedi", e);
+                }
+                log.info("Kullanılmayan içerik silindi: {}/{}", bucketName, contentHash);
+            });
+        } catch (RuntimeException e) {
+            log.warn("İçerik depodan silinemedi: {}/{}", bucketName, contentHash, e);
+        }
+    }
+
+    private StoredBlob acquireOnce(String bucketName, String contentHash, long size, String storageCodec,
+                                   long storedSize, ContentOperation storeContent) {
+        return transactionTemplate.execute(status -> {
+            lockContent(bucketName, contentHash);
+            Optional<StoredBlob> blob = storedBlobRepository.findByBucketNameAndContentHash(bucketName, contentHash);
+            if (blob.isPresent() && blob.get().getRefCount() > 0) {
+                StoredBlob storedBlob = blob.get();
+                storedBlob.setRefCount(storedBlob.getRefCount() + 1);
+                return storedBlobRepository.save(storedBlob);
+            }
+
+            try {
+                storeContent.run();
+            } catch (Exception e) {
+                throw new FileStorageException("İçerik depoya yazılamadı", e);
+            }
+            if (blob.isPresent()) {
+                // Referansı kalmamış, silinmeyi bekleyen (veya silinmesi yarım kalmış) kayıt: içerik yeniden yazıldı
+                StoredBlob storedBlob = blob.get();
+                storedBlob.setSize(size);
+                storedBlob.setStorageCodec(storageCodec);
+                storedBlob.setStoredSize(storageCodec != null ? storedSize : null);
+                storedBlob.setRefCount(1);
+                return storedBlobRepository.saveAndFlush(storedBlob);
+            }
+            return storedBlobRepository.saveAndFlush(StoredBlob.builder()
+                    .bucketName(bucketName)
+                    .contentHash(contentHash)
+                    .size(size)
+                    .storageCodec(storageCodec)
+                    .storedSize(storageCodec != null ? storedSize : null)
+                    .refCount(1)
+                    .build());
+        });
+    }
+
+    /**
+     * Aynı içerik üzerindeki referans ekleme, düşme ve silme işlemlerini işlem sonuna kadar sıraya sok.
+     * Satır kilidi henüz var olmayan kaydı koruyamadığı için PostgreSQL danışma kilidi (advisory lock) kullanılır.
+     */
+    private void lockContent(String bucketName, String contentHash) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", (ResultSet rs) -> null,
+                bucketName + "/" + contentHash);
+    }
+
+    /**
+     * Okunan içeriğin SHA-256 özetini hesaplayan akış oluştur
+     * @param inputStream Kaynak akış
+     * @return Özet hesaplayan akış; özet {@link #hex(DigestInputStream)} ile okunur
+     */
+    public static DigestInputStream digesting(InputStream inputStream) {
+        try {
+            return new DigestInputStream(inputStream, MessageDigest.getInstance("SHA-256"));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
+    }
+
+    /**
+     * Akıştan okunan içeriğin özetini onaltılık metin olarak döndür
+     * @param digestStream Tamamen okunmuş özet akışı
+     * @return Küçük harfli onaltılık SHA-256 özeti
+     */
+    public static String hex(DigestInputStream digestStream) {
+        return HexFormat.of().formatHex(digestStream.getMessageDigest().digest());
+    }
+
+    /**
+     * Depodaki içerik üzerinde çalışan işlem (yazma veya silme)
+     */
+    @FunctionalInterface
+    public interface ContentOperation {
+        void run() throws Exception;
+    }
+}
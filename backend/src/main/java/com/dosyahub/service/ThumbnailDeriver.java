@@ -0,0 +1,139 @@
+package com.dosyahub.service;
+
+import com.dosyahub.model.FileMetadata;
+import com.dosyahub.model.FileType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * PNG/JPG dosyaları için sabit boyutlu (en uzun kenarı thumbnail-size) JPEG küçük resim.
+ * Büyük resimler alt örnekleme (subsampling) ile okunur; bellekte resmin tamamı değil, küçük resmin birkaç katı
+ * çözünürlükte bir kopyası açılır.
+ */
+@Component
+public class ThumbnailDeriver implements ContentDeriver {
+
+    public static final String KIND = "thumbnail";
+
+    private final int size;
+    private final float quality;
+
+    public ThumbnailDeriver(@Value("${storage.derivation.thumbnail-size:256}") int size,
+                            @Value("${storage.derivation.thumbnail-quality:0.8}") float quality) {
+        this.size = size;
+        this.quality = quality;
+        // Çözümleme sırasında geçici dosya yerine bellek kullanılır
+        ImageIO.setUseCache(false);
+    }
+
+    @Override
+    public String getKind() {
+        return KIND;
+    }
+
+    @Override
+    public String getContentType() {
+        return MediaType.IMAGE_JPEG_VALUE;
+    }
+
+    @Override
+    public boolean supports(FileMetadata metadata) {
+        return metadata.getFileType() == FileType.PNG || metadata.getFileType() == FileType.JPG;
+    }
+
+    @Override
+    public byte[] derive(InputStream content) throws IOException {
+        BufferedImage source = read(content);
+        if (source == null) {
+            return null;
+        }
+        return writeJpeg(scale(source, size), quality);
+    }
+
+    /**
+     * Resmi, küçük resmin en az iki katı çözünürlükte kalacak şekilde alt örnekleyerek oku
+     */
+    private BufferedImage read(InputStream content) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Resmi en uzun kenarı maxSize olacak şekilde küçült (büyütülmez). Saydam alanlar beyaz zeminle doldurulur.
+     * @param source Kaynak resim
+     * @param maxSize En uzun kenar
+     * @return RGB küçük resim
+     */
+    static BufferedImage scale(BufferedImage source, int maxSize) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Resmi verilen kalitede JPEG olarak kodla
+     * @param image Resim
+     * @param quality JPEG kalitesi (0-1)
+     * @return JPEG içeriği
+     */
+    static byte[] writeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,227 @@
+package com.dosyahub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Birden çok dosyanın veya tüm hesabın tek ZIP arşivi olarak indirilmesi.
+ * Arşiv yanıt akışına dosya dosya yazılır; bellekte veya diskte arşivin tamamı oluşturulmaz. Bir dosya yazılırken
+ * sıradaki birkaç dosya ayrı bir havuzda önceden açılıp ilk parçaları okunur, böylece depolamanın gecikmesi
+ * dosyalar arasında beklenmez.
+ */
+@Service
+@Slf4j
+public class ZipDownloadService {
+
+    // Zaten sıkıştırılmış biçimler tekrar sıkıştırılmaz
+    private static final Set<String> COMPRESSED_CONTENT_TYPES = Set.of("image/png", "image/jpeg");
+
+    // Önceden açılan her dosyadan okunan ilk parçanın boyutu
+    private static final int READ_AHEAD_BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final ObjectProvider<MinioStorageService> minioStorageService;
+    private final AsyncTaskExecutor readAheadExecutor;
+
+    @Value("${storage.type}")
+    private String storageType;
+
+    @Value("${minio.enabled}")
+    private boolean minioEnabled;
+
+    @Value("${storage.download.zip-read-ahead:4}")
+    private int readAhead;
+
+    public ZipDownloadService(FileStorageService fileStorageService,
+                              ObjectProvider<MinioStorageService> minioStorageService,
+                              @Qualifier("readAheadExecutor") AsyncTaskExecutor readAheadExecutor) {
+        this.fileStorageService = fileStorageService;
+        this.minioStorageService = minioStorageService;
+        this.readAheadExecutor = readAheadExecutor;
+    }
+
+    /**
+     * Arşive eklenecek dosyaları bul
+     * @param userId Kullanıcı ID
+     * @param fileIds Listelemedeki dosya ID'leri; boşsa arama sonucundaki veya kullanıcının tüm dosyaları
+     * @param search Arama metni (opsiyonel)
+     * @return İndirme uç noktalarında kullanılan dosya adları
+     */
+    public List<String> findFiles(UUID userId, Collection<String> fileIds, String search) {
+        if (isMinio()) {
+            return minioStorageService.getObject().findObjectNames(userId, fileIds, search);
+        }
+        return fileStorageService.findStoredNames(userId, fileIds, search);
+    }
+
+    /**
+     * Dosyaları ZIP arşivi olarak akışa yaz. Okunamayan dosyalar atlanır; istemci bağlantıyı keserse
+     * önceden açılmış akışlar kapatılır.
+     * @param userId Kullanıcı ID
+     * @param fileNames Dosya adları
+     * @param outputStream Yanıt akışı
+     */
+    public void writeZip(UUID userId, List<String> fileNames, OutputStream outputStream) throws IOException {
+        boolean minio = isMinio();
+        Iterator<String> remaining = fileNames.iterator();
+        Deque<Future<OpenedFile>> window = new ArrayDeque<>();
+        Set<String> entryNames = new HashSet<>();
+        int written = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        try {
+            while (!window.isEmpty() || remaining.hasNext()) {
+                while (window.size() <= readAhead && remaining.hasNext()) {
+                    String fileName = remaining.next();
+                    window.add(readAheadExecutor.submit(() -> open(userId, fileName, minio)));
+                }
+
+                OpenedFile file;
+                try {
+                    file = window.poll().get();
+                } catch (ExecutionException e) {
+                    log.warn("Dosya arşive eklenemedi: {}", e.getCause().getMessage());
+                    continue;
+                }
+
+                try (InputStream in = file.stream) {
+                    ZipEntry entry = new ZipEntry(uniqueEntryName(entryNames, file.entryName));
+                    entry.setLastModifiedTime(FileTime.from(file.content.getLastModified()));
+                    // PNG/JPG gibi sıkıştırılmış içerik sıkıştırmasız (düzey 0) bloklarla yazılır, CPU harcanmaz
+                    zip.setLevel(isCompressed(file) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+                    zip.putNextEntry(entry);
+                    in.transferTo(zip);
+                    zip.closeEntry();
+                    written++;
+                }
+            }
+            zip.finish();
+            zip.flush();
+            log.info("ZIP indirmesi tamamlandı: kullanıcı={}, dosya sayısı={}/{}", userId, written, fileNames.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("ZIP indirmesi kesildi");
+        } finally {
+            for (Future<OpenedFile> pending : window) {
+                closeQuietly(pending);
+            }
+        }
+    }
+
+    private OpenedFile open(UUID userId, String fileName, boolean minio) throws IOException {
+        FileContent content = minio
+                ? minioStorageService.getObject().getFileContent(userId, fileName)
+                : fileStorageService.getFileContent(userId, fileName);
+        BufferedInputStream stream = new BufferedInputStream(content.open(), READ_AHEAD_BUFFER_SIZE);
+        try {
+            // İlk parçayı önceden oku; sıra bu dosyaya geldiğinde veri hazırdır
+            stream.mark(1);
+            stream.read();
+            stream.reset();
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        return new OpenedFile(toEntryName(fileName), content, stream);
+    }
+
+    private void closeQuietly(Future<OpenedFile> pending) {
+        try {
+            pending.get().stream.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | IOException e) {
+            log.debug("Önceden açılan dosya kapatılamadı", e);
+        }
+    }
+
+    private boolean isCompressed(OpenedFile file) {
+        String contentType = file.content.getContentType();
+        if (contentType != null) {
+            return COMPRESSED_CONTENT_TYPES.contains(contentType);
+        }
+        String name = file.entryName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".png") || name.endsWith(".jpg") || name.endsWith(".jpeg");
+    }
+
+    /**
+     * Saklanan dosya adından ("userId/UUID_dosyaAdı" veya "UUID_dosyaAdı") orijinal dosya adını çıkar
+     * @param fileName Saklanan dosya adı
+     * @return Arşivdeki dosya adı
+     */
+    private static String toEntryName(String fileName) {
+        String name = fileName.substring(fileName.lastIndexOf('/') + 1);
+        int separator = name.indexOf('_');
+        if (separator > 0) {
+            try {
+                UUID.fromString(name.substring(0, separator));
+                name = name.substring(separator + 1);
+            } catch (IllegalArgumentException e) {
+                // UUID öneki yoksa ad olduğu gibi kullanılır
+            }
+        }
+        return name.isEmpty() ? fileName : name;
+    }
+
+    /**
+     * Aynı adlı dosyalar arşivde "ad (2).uzantı" biçiminde ayrılır
+     */
+    private static String uniqueEntryName(Set<String> entryNames, String name) {
+        if (entryNames.add(name)) {
+            return name;
+        }
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        for (int i = 2; ; i++) {
+            String candidate = base + " (" + i + ")" + extension;
+            if (entryNames.add(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private boolean isMinio() {
+        return minioEnabled && "minio".equals(storageType);
+    }
+
+    /**
+     * Önceden açılmış, ilk parçası okunmuş dosya
+     */
+    private static final class OpenedFile {
+        private final String entryName;
+        private final FileContent content;
+        private final InputStream stream;
+
+        private OpenedFile(String entryName, FileContent content, InputStream stream) {
+            this.entryName = entryName;
+            this.content = content;
+            this.stream = stream;
+        }
+    }
+}
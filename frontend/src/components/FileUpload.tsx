@@ -17,11 +17,12 @@ import { fileService } from '../services/fileService';
 import { FileUploadProgress } from '../types/file';
 
 interface FileUploadProps {
-  onUploadSuccess: (file: File, onProgress?: (progress: number) => void) => void;
+  // Seçilen dosyaların hepsi tek istekte (toplu yükleme) gönderilir
+  onUploadSuccess: (files: File[], onProgress?: (progress: number) => void) => void;
 }
 
 const FileUpload: React.FC<FileUploadProps> = ({ onUploadSuccess }) => {
-  const [selectedFile, setSelectedFile] = useState<File | null>(null);
+  const [selectedFiles, setSelectedFiles] = useState<File[]>([]);
   const [isUploading, setIsUploading] = useState(false);
   const [uploadProgress, setUploadProgress] = useState<FileUploadProgress | null>(null);
   const [uploadError, setUploadError] = useState<string | null>(null);
@@ -30,22 +31,26 @@ const FileUpload: React.FC<FileUploadProps> = ({ onUploadSuccess }) => {
   // Desteklenen dosya türleri
   const allowedFileTypes = ['application/pdf', 'image/png', 'image/jpeg'];
 
+  // Desteklenen dosyaları seç, desteklenmeyenler için hata göster
+  const selectFiles = (fileList: FileList) => {
+    const files = Array.from(fileList);
+    const accepted = files.filter(file => allowedFileTypes.includes(file.type));
+    const rejected = files.filter(file => !allowedFileTypes.includes(file.type));
+
+    if (rejected.length > 0) {
+      setUploadError(`Desteklenmeyen dosya formatı: ${rejected.map(file => file.name).join(', ')}. Sadece PDF, PNG ve JPG dosyaları yüklenebilir.`);
+    } else {
+      setUploadError(null);
+    }
+    setSelectedFiles(accepted);
+  };
+
   const handleFileSelect = (event: React.ChangeEvent<HTMLInputElement>) => {
     if (event.target.files && event.target.files.length > 0) {
-      const file = event.target.files[0];
-      
-      // Dosya türü kontrolü
-      if (!allowedFileTypes.includes(file.type)) {
-        setUploadError('Desteklenmeyen dosya formatı. Sadece PDF, PNG ve JPG dosyaları yüklenebilir.');
-        setSelectedFile(null);
-        if (fileInputRef.current) {
-          fileInputRef.current.value = '';
-        }
-        return;
+      selectFiles(event.target.files);
+      if (fileInputRef.current) {
+        fileInputRef.current.value = '';
       }
-      
-      setSelectedFile(file);
-      setUploadError(null);
     }
   };
 
@@ -56,28 +61,18 @@ const FileUpload: React.FC<FileUploadProps> = ({ onUploadSuccess }) => {
   const handleDrop = (event: React.DragEvent<HTMLDivElement>) => {
     event.preventDefault();
     if (event.dataTransfer.files && event.dataTransfer.files.length > 0) {
-      const file = event.dataTransfer.files[0];
-      
-      // Dosya türü kontrolü
-      if (!allowedFileTypes.includes(file.type)) {
-        setUploadError('Desteklenmeyen dosya formatı. Sadece PDF, PNG ve JPG dosyaları yüklenebilir.');
-        setSelectedFile(null);
-        return;
-      }
-      
-      setSelectedFile(file);
-      setUploadError(null);
+      selectFiles(event.dataTransfer.files);
     }
   };
 
   const handleUpload = async () => {
-    if (!selectedFile) return;
+    if (selectedFiles.length === 0) return;
     
     try {
       setIsUploading(true);
       setUploadProgress({ loaded: 0, total: 100, progress: 0 });
       
-      onUploadSuccess(selectedFile, (progress: number) => {
+      onUploadSuccess(selectedFiles, (progress: number) => {
         setUploadProgress({
           loaded: progress,
           total: 100,
@@ -85,7 +80,7 @@ const FileUpload: React.FC<FileUploadProps> = ({ onUploadSuccess }) => {
         });
       });
       
-      setSelectedFile(null);
+      setSelectedFiles([]);
       if (fileInputRef.current) {
         fileInputRef.current.value = '';
       }
@@ -170,14 +165,15 @@ const FileUpload: React.FC<FileUploadProps> = ({ onUploadSuccess }) => {
           onChange={handleFileSelect}
           ref={fileInputRef}
           accept=".pdf,.png,.jpg,.jpeg"
+          multiple
         />
         
         <CloudUpload fontSize="large" color="primary" sx={{ mb: 2 }} />
         
-        {!selectedFile ? (
+        {selectedFiles.length === 0 ? (
           <>
             <Typography variant="body1" sx={{ mb: 2, textAlign: 'center' }}>
-              Dosyanızı buraya sürükleyip bırakın veya seçmek için tıklayın
+              Dosyalarınızı buraya sürükleyip bırakın veya seçmek için tıklayın
             </Typography>
             <Typography variant="body2" color="text.secondary" sx={{ mb: 2, textAlign: 'center' }}>
               (Sadece PDF, PNG ve JPG dosyaları)
@@ -193,10 +189,17 @@ const FileUpload: React.FC<FileUploadProps> = ({ onUploadSuccess }) => {
         ) : (
           <>
             <Typography variant="body1" sx={{ mb: 1 }}>
-              <strong>Seçilen Dosya:</strong> {selectedFile.name}
+              <strong>Seçilen Dosyalar ({selectedFiles.length}):</strong>
             </Typography>
+            <List dense sx={{ width: '100%', mb: 1 }}>
+              {selectedFiles.map((file) => (
+                <ListItem key={`${file.name}-${file.size}-${file.lastModified}`}>
+                  <ListItemText primary={file.name} secondary={formatFileSize(file.size)} />
+                </ListItem>
+              ))}
+            </List>
             <Typography variant="body2" color="text.secondary" sx={{ mb: 2 }}>
-              {formatFileSize(selectedFile.size)}
+              Toplam: {formatFileSize(selectedFiles.reduce((total, file) => total + file.size, 0))}
             </Typography>
             
             {isUploading ? (
@@ -229,7 +232,7 @@ const FileUpload: React.FC<FileUploadProps> = ({ onUploadSuccess }) => {
                 <Button
                   variant="outlined"
                   onClick={() => {
-                    setSelectedFile(null);
+                    setSelectedFiles([]);
                     if (fileInputRef.current) {
                       fileInputRef.current.value = '';
                     }
@@ -4,7 +4,7 @@ import { useDispatch, useSelector } from 'react-redux';
 import { RootState, AppDispatch } from '../store';
 import FileUpload from '../components/FileUpload';
 import FileList from '../components/FileList';
-import { fetchFiles, uploadFile, deleteFile, clearErrors, clearSuccess } from '../slices/fileSlice';
+import { fetchFiles, uploadFiles, deleteFile, clearErrors, clearSuccess } from '../slices/fileSlice';
 import { FileUploadResponse } from '../types/file';
 
 const DashboardPage: React.FC = () => {
@@ -49,9 +49,9 @@ const DashboardPage: React.FC = () => {
     dispatch(fetchFiles({ page, size, sort, search }));
   };
 
-  const handleFileUploadSuccess = async (file: File, onProgress?: (progress: number) => void) => {
+  const handleFileUploadSuccess = async (files: File[], onProgress?: (progress: number) => void) => {
     try {
-      await dispatch(uploadFile({ file, onProgress })).unwrap();
+      await dispatch(uploadFiles({ files, onProgress })).unwrap();
       handleFetchFiles();
     } catch (error) {
       console.error('Dosya yükleme hatası:', error);
@@ -139,8 +139,8 @@ const DashboardPage: React.FC = () => {
         </Grid>
         <Grid size={{ xs: 12, md: 4 }}>
           <FileUpload 
-            onUploadSuccess={(file: File, onProgress) => 
-              handleFileUploadSuccess(file, onProgress)
+            onUploadSuccess={(files: File[], onProgress) => 
+              handleFileUploadSuccess(files, onProgress)
             } 
           />
         </Grid>
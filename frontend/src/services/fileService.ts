@@ -1,10 +1,16 @@
 import axios from 'axios';
 import api from './api';
-import { FileMetadata, FileListResponse, FileSearchParams, FileUploadResponse } from '../types/file';
+import { BatchUploadResponse, BatchUploadResult, FileMetadata, FileListResponse, FileSearchParams, FileUploadResponse } from '../types/file';
 
 // API URL tanımlaması - doğru şekilde tanımlanmalı!
 const API_URL = 'http://localhost:8080/api';
 
+// Sunucudaki sınırlarla uyumlu olmalı: spring.servlet.multipart.max-file-size / max-request-size
+// ve storage.upload.batch-max-files. Toplam boyutta multipart başlıkları için pay bırakılır.
+const MAX_FILE_SIZE = 15 * 1024 * 1024;
+const BATCH_MAX_REQUEST_SIZE = 19 * 1024 * 1024;
+const BATCH_MAX_FILES = 50;
+
 export const fileService = {
     async uploadFile(file: File, onUploadProgress?: (progressEvent: any) => void): Promise<FileUploadResponse> {
         const formData = new FormData();
@@ -27,6 +33,75 @@ export const fileService = {
         return response.data;
     },
 
+    async uploadFiles(files: File[], onUploadProgress?: (progressEvent: any) => void): Promise<BatchUploadResponse> {
+        // Dosyalar sunucunun istek sınırlarına (dosya sayısı ve toplam boyut) sığan gruplar halinde gönderilir,
+        // sunucu dosya bazında sonuç döner; sınırı aşan dosyalar hiç gönderilmeden hatalı sayılır
+        const results: BatchUploadResult[] = [];
+        const batches: File[][] = [];
+        let current: File[] = [];
+        let currentSize = 0;
+
+        files.forEach((file) => {
+            if (file.size > MAX_FILE_SIZE) {
+                results.push({
+                    originalName: file.name,
+                    fileSize: file.size,
+                    contentType: file.type,
+                    status: 'error',
+                    error: `Dosya boyutu ${MAX_FILE_SIZE / (1024 * 1024)} MB sınırını aşıyor`
+                });
+                return;
+            }
+            if (current.length > 0
+                && (current.length >= BATCH_MAX_FILES || currentSize + file.size > BATCH_MAX_REQUEST_SIZE)) {
+                batches.push(current);
+                current = [];
+                currentSize = 0;
+            }
+            current.push(file);
+            currentSize += file.size;
+        });
+        if (current.length > 0) {
+            batches.push(current);
+        }
+
+        // İlerleme tüm grupların toplam boyutu üzerinden bildirilir
+        const total = batches.reduce((sum, batch) => sum + batch.reduce((size, file) => size + file.size, 0), 0);
+        let uploadedBefore = 0;
+        const token = localStorage.getItem('token');
+
+        for (const batch of batches) {
+            const formData = new FormData();
+            batch.forEach((file) => formData.append('files', file));
+            const batchSize = batch.reduce((size, file) => size + file.size, 0);
+
+            const response = await axios.post<BatchUploadResponse>(`${API_URL}/files/upload/batch`, formData, {
+                headers: {
+                    'Content-Type': 'multipart/form-data',
+                    'Authorization': token ? `Bearer ${token}` : ''
+                },
+                onUploadProgress: onUploadProgress && ((progressEvent: any) => {
+                    const loaded = progressEvent.total
+                        ? Math.min(progressEvent.loaded / progressEvent.total, 1) * batchSize
+                        : 0;
+                    onUploadProgress({ lengthComputable: total > 0, loaded: uploadedBefore + loaded, total });
+                })
+            });
+
+            results.push(...response.data.files);
+            uploadedBefore += batchSize;
+        }
+
+        const successCount = results.filter((result) => result.status === 'success').length;
+        const errorCount = results.length - successCount;
+        return {
+            files: results,
+            successCount,
+            errorCount,
+            status: errorCount === 0 ? 'success' : successCount === 0 ? 'error' : 'partial'
+        };
+    },
+
     async getFiles(params?: FileSearchParams): Promise<FileListResponse> {
         console.log('getFiles çağrıldı, params:', params); // Hata ayıklama için
         const response = await api.get('/files', { params });
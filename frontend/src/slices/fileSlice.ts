@@ -1,6 +1,6 @@
 import { createSlice, createAsyncThunk } from '@reduxjs/toolkit';
 import { fileService } from '../services/fileService';
-import { FileMetadata, FileUploadResponse } from '../types/file';
+import { BatchUploadResponse, FileMetadata } from '../types/file';
 
 interface FileState {
   files: FileMetadata[];
@@ -37,26 +37,37 @@ export const fetchFiles = createAsyncThunk(
   }
 );
 
-export const uploadFile = createAsyncThunk(
-  'files/uploadFile',
+// Başarısız dosyaları adları ve hatalarıyla listele
+const describeFailures = (response: BatchUploadResponse): string =>
+  response.files
+    .filter(file => file.status === 'error')
+    .map(file => `${file.originalName}: ${file.error || 'Yükleme hatası'}`)
+    .join(', ');
+
+// Seçilen dosyalar toplu yükleme uç noktasına, istek sınırlarına sığan gruplar halinde gönderilir
+export const uploadFiles = createAsyncThunk(
+  'files/uploadFiles',
   async (
-    { file, onProgress }: { file: File; onProgress?: (progress: number) => void },
+    { files, onProgress }: { files: File[]; onProgress?: (progress: number) => void },
     { rejectWithValue }
   ) => {
     try {
-      console.log('uploadFile çağrılıyor:', file.name);
-      const response = await fileService.uploadFile(file, (progressEvent) => {
+      console.log('uploadFiles çağrılıyor:', files.map(file => file.name));
+      const response: BatchUploadResponse = await fileService.uploadFiles(files, (progressEvent) => {
         if (progressEvent.lengthComputable && onProgress) {
           const percentCompleted = Math.round((progressEvent.loaded * 100) / progressEvent.total);
           onProgress(percentCompleted);
         }
       });
-      console.log('uploadFile yanıtı:', response);
+      console.log('uploadFiles yanıtı:', response);
+      if (response.successCount === 0) {
+        return rejectWithValue(describeFailures(response));
+      }
       return response;
     } catch (error: any) {
-      console.error('uploadFile hatası:', error);
+      console.error('uploadFiles hatası:', error);
       return rejectWithValue(
-        error.response?.data?.message || 'Dosya yüklenirken bir hata oluştu'
+        error.response?.data?.message || 'Dosyalar yüklenirken bir hata oluştu'
       );
     }
   }
@@ -116,21 +127,24 @@ const fileSlice = createSlice({
       })
       
       // Dosya Yükleme
-      .addCase(uploadFile.pending, (state) => {
+      .addCase(uploadFiles.pending, (state) => {
         state.isLoading = true;
         state.error = null;
       })
-      .addCase(uploadFile.fulfilled, (state, action) => {
+      .addCase(uploadFiles.fulfilled, (state, action) => {
         state.isLoading = false;
         state.uploadProgress = null;
-        console.log('uploadFile fulfilled:', action.payload);
-        state.success = `${action.payload.filename || 'Dosya'} başarıyla yüklendi`;
+        console.log('uploadFiles fulfilled:', action.payload);
+        state.success = `${action.payload.successCount} dosya başarıyla yüklendi`;
+        if (action.payload.errorCount > 0) {
+          state.error = `Yüklenemeyen dosyalar: ${describeFailures(action.payload)}`;
+        }
       })
-      .addCase(uploadFile.rejected, (state, action) => {
+      .addCase(uploadFiles.rejected, (state, action) => {
         state.isLoading = false;
         state.uploadProgress = null;
         state.error = action.payload as string;
-        console.error('uploadFile rejected:', action.payload);
+        console.error('uploadFiles rejected:', action.payload);
       })
       
       // Dosya Silme
@@ -18,6 +18,22 @@ export interface FileUploadResponse {
     uploadDate: string;
 }
 
+export interface BatchUploadResult {
+    originalName: string;
+    fileName?: string;  // Başarısız yüklemelerde gönderilmez
+    fileSize: number;
+    contentType: string;
+    status: 'success' | 'error';
+    error?: string;
+}
+
+export interface BatchUploadResponse {
+    files: BatchUploadResult[];
+    successCount: number;
+    errorCount: number;
+    status: 'success' | 'partial' | 'error';
+}
+
 export interface FileUploadProgress {
     loaded: number;
     total: number;
@@ -26,7 +42,8 @@ export interface FileUploadProgress {
 
 export interface FileListResponse {
     files: FileMetadata[];
-    totalCount: number;
+    totalCount?: number;  // İmleç ile sayfalamada gönderilmez
+    nextCursor?: string;
 }
 
 export interface FileSearchParams {
@@ -34,4 +51,5 @@ export interface FileSearchParams {
     size?: number;
     sort?: string;
     search?: string;
+    cursor?: string;
 } 
\ No newline at end of file
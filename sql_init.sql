@@ -8,9 +8,13 @@
 
 -- Tabloları oluşturmadan önce varsa silme (Geliştirme aşamasında kullanışlı)
 DROP TABLE IF EXISTS file_metadata;
+DROP TABLE IF EXISTS stored_blobs;
 DROP TABLE IF EXISTS users;
 DROP TYPE IF EXISTS file_type;
 
+-- Dosya adı araması (ILIKE '%...%') için trigram desteği
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- FileType enum tipi
 CREATE TYPE file_type AS ENUM ('PDF', 'PNG', 'JPG');
 
@@ -36,14 +40,37 @@ CREATE TABLE file_metadata (
     file_type file_type NOT NULL,
     size BIGINT NOT NULL,
     bucket_name VARCHAR(100) NOT NULL,
+    content_hash VARCHAR(64),
+    storage_codec VARCHAR(20),
+    stored_size BIGINT,
     uploaded_at TIMESTAMP NOT NULL DEFAULT NOW(),
     CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- İçerik adresli (SHA-256) dosya içerikleri; aynı içerik depoda bir kez saklanır
+CREATE TABLE stored_blobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    bucket_name VARCHAR(100) NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    size BIGINT NOT NULL,
+    storage_codec VARCHAR(20),
+    stored_size BIGINT,
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT uk_stored_blobs_bucket_hash UNIQUE (bucket_name, content_hash)
+);
+
 -- İndeksler
 CREATE INDEX idx_file_metadata_user_id ON file_metadata(user_id);
 CREATE INDEX idx_file_metadata_file_type ON file_metadata(file_type);
 CREATE INDEX idx_file_metadata_uploaded_at ON file_metadata(uploaded_at);
+-- İmleç (keyset) sayfalaması için: (user_id, sıralama değeri, id)
+CREATE INDEX idx_file_metadata_user_uploaded_at ON file_metadata(user_id, uploaded_at, id);
+CREATE INDEX idx_file_metadata_user_size ON file_metadata(user_id, size, id);
+-- İndirme ve silmede nesne adı (userId/UUID_dosyaAdı) ile tek kayıt araması için
+CREATE UNIQUE INDEX idx_file_metadata_stored_filename ON file_metadata(stored_filename);
+-- Dosya adında alt metin araması için
+CREATE INDEX idx_file_metadata_filename_trgm ON file_metadata USING gin (original_filename gin_trgm_ops);
 
 -- Test kullanıcısı (Şifre: password)
 INSERT INTO users (email, password, first_name, last_name)